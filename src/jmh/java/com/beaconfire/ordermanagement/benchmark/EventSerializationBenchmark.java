@@ -0,0 +1,88 @@
+package com.beaconfire.ordermanagement.benchmark;
+
+import com.beaconfire.ordermanagement.dto.InventoryReductionEvent;
+import com.beaconfire.ordermanagement.dto.ItemToReduce;
+import com.beaconfire.ordermanagement.dto.OrderChargeRequestEvent;
+import com.beaconfire.ordermanagement.entity.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-01-30
+ */
+/*
+* JSON work per published event:
+* - OutboxWriter.enqueue: event -> JSON text for the outbox row
+* - OutboxRelay: outbox JSON -> event DTO again
+* - KafkaTemplate.send: JsonSerializer writes the record value
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+	@Param({"1", "10", "100"})
+	private int basketSize;
+	
+	private ObjectMapper objectMapper;
+	private JsonSerializer<Object> kafkaSerializer;
+	
+	private OrderChargeRequestEvent chargeRequest;
+	private InventoryReductionEvent inventoryReduction;
+	private String inventoryReductionJson;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		// configured like the application's ObjectMapper (java.time support, ISO dates)
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		kafkaSerializer = new JsonSerializer<>(objectMapper);
+		
+		Order order = Fixtures.order(basketSize, false);
+		chargeRequest = OrderChargeRequestEvent.builder()
+				.orderId(order.getId())
+				.userId(order.getUserId())
+				.totalAmount(order.getTotalAmount())
+				.paymentMethodToken("tok_visa")
+				.build();
+		
+		List<ItemToReduce> itemsToReduce = order.getItems().stream()
+				.map(item -> new ItemToReduce(item.getProductId(), item.getQuantity()))
+				.toList();
+		inventoryReduction = new InventoryReductionEvent(order.getId(), itemsToReduce, LocalDateTime.now());
+		inventoryReductionJson = objectMapper.writeValueAsString(inventoryReduction);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown(){
+		kafkaSerializer.close();
+	}
+	
+	@Benchmark
+	public String outboxWriteChargeRequest() throws Exception {
+		return objectMapper.writeValueAsString(chargeRequest);
+	}
+	
+	@Benchmark
+	public String outboxWriteInventoryReduction() throws Exception {
+		return objectMapper.writeValueAsString(inventoryReduction);
+	}
+	
+	@Benchmark
+	public InventoryReductionEvent relayReadInventoryReduction() throws Exception {
+		return objectMapper.readValue(inventoryReductionJson, InventoryReductionEvent.class);
+	}
+	
+	@Benchmark
+	public byte[] kafkaSerializeInventoryReduction(){
+		return kafkaSerializer.serialize("inventory.order-placed", inventoryReduction);
+	}
+}
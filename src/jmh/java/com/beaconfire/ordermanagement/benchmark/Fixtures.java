@@ -0,0 +1,101 @@
+package com.beaconfire.ordermanagement.benchmark;
+
+import com.beaconfire.ordermanagement.dto.ItemQuantityDTO;
+import com.beaconfire.ordermanagement.entity.*;
+import com.beaconfire.ordermanagement.util.TimeOrderedIds;
+import jakarta.persistence.Tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * @author luluxue
+ * @date 2026-01-30
+ */
+// orders, baskets and result rows shaped like production data, built once per trial
+public final class Fixtures {
+	private Fixtures(){
+	}
+	
+	public static String productId(int i){
+		return "product-" + i;
+	}
+	
+	public static BigDecimal unitPrice(int i){
+		return BigDecimal.valueOf(199 + (i % 50) * 100L, 2);
+	}
+	
+	public static List<ItemQuantityDTO> basket(int items){
+		List<ItemQuantityDTO> basket = new ArrayList<>(items);
+		for (int i = 0; i < items; i++){
+			basket.add(new ItemQuantityDTO(productId(i), 1 + i % 3));
+		}
+		return basket;
+	}
+	
+	// a delivered order, every item has one returned unit when withReturns is set
+	public static Order order(int items, boolean withReturns){
+		Order order = Order.builder()
+				.id(TimeOrderedIds.next())
+				.userId("user-1")
+				.items(new ArrayList<>())
+				.status(OrderStatus.DELIVERED)
+				.createdAt(LocalDateTime.now())
+				.idempotencyKey(UUID.randomUUID().toString())
+				.build();
+		
+		BigDecimal total = BigDecimal.ZERO;
+		for (int i = 0; i < items; i++){
+			int quantity = 2 + i % 3;
+			BigDecimal subtotal = unitPrice(i).multiply(BigDecimal.valueOf(quantity));
+			OrderItem item = OrderItem.builder()
+					.id((long) i)
+					.order(order)
+					.productId(productId(i))
+					.productName("Product " + i)
+					.unitPrice(unitPrice(i))
+					.quantity(quantity)
+					.subtotal(subtotal)
+					.returnedQuantity(withReturns ? 1 : 0)
+					.returnedItems(new ArrayList<>())
+					.build();
+			if (withReturns){
+				item.addReturnedItem(ReturnedItem.builder()
+						.id(UUID.randomUUID().toString())
+						.quantity(1)
+						.returnReason("DAMAGED")
+						.returnedAt(LocalDateTime.now())
+						.refundStatus(RefundStatus.COMPLETED)
+						.refundTransactionId("refund-" + i)
+						.refundAmount(unitPrice(i))
+						.refundedAt(LocalDateTime.now())
+						.build());
+			}
+			order.getItems().add(item);
+			total = total.add(subtotal);
+		}
+		order.setTotalAmount(total);
+		return order;
+	}
+	
+	// the rows OrderQueryRepository gets back for this order: one per item
+	public static List<Tuple> rows(Order order){
+		List<Tuple> rows = new ArrayList<>(order.getItems().size());
+		for (OrderItem item: order.getItems()){
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("orderId", order.getId());
+			row.put("userId", order.getUserId());
+			row.put("status", order.getStatus());
+			row.put("totalAmount", order.getTotalAmount());
+			row.put("createdAt", order.getCreatedAt());
+			row.put("productId", item.getProductId());
+			row.put("productName", item.getProductName());
+			row.put("unitPrice", item.getUnitPrice());
+			row.put("quantity", item.getQuantity());
+			row.put("subtotal", item.getSubtotal());
+			rows.add(new Stubs.MapTuple(row));
+		}
+		return rows;
+	}
+}
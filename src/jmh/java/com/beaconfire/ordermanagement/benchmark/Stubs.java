@@ -0,0 +1,133 @@
+package com.beaconfire.ordermanagement.benchmark;
+
+import com.beaconfire.ordermanagement.client.product.ProductServiceClient;
+import com.beaconfire.ordermanagement.dto.ItemQuantityDTO;
+import com.beaconfire.ordermanagement.dto.ProductAvailabilityDTO;
+import com.beaconfire.ordermanagement.dto.ProductResponseDTO;
+import feign.Request;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * @author luluxue
+ * @date 2026-01-30
+ */
+/*
+* in-memory stand-ins for the Feign clients and repositories,
+* so the benchmarks measure our code and not the network or the database
+* */
+public final class Stubs {
+	private Stubs(){
+	}
+	
+	// for dependencies the benchmarked path must not touch
+	@SuppressWarnings("unchecked")
+	public static <T> T unsupported(Class<T> type){
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			if (method.getDeclaringClass() == Object.class){
+				return switch (method.getName()) {
+					case "hashCode" -> System.identityHashCode(proxy);
+					case "equals" -> proxy == args[0];
+					default -> type.getSimpleName() + " stub";
+				};
+			}
+			throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+		});
+	}
+	
+	// product-service with a fixed catalogue, every product is in stock
+	public static class InMemoryProductServiceClient implements ProductServiceClient {
+		private final Map<String, ProductResponseDTO> catalogue = new HashMap<>();
+		
+		public InMemoryProductServiceClient(int products){
+			for (int i = 0; i < products; i++){
+				String productId = Fixtures.productId(i);
+				catalogue.put(productId, new ProductResponseDTO(productId, "Product " + i, Fixtures.unitPrice(i)));
+			}
+		}
+		
+		@Override
+		public boolean isProductAvailable(String productId, Integer quantity){
+			return catalogue.containsKey(productId);
+		}
+		
+		@Override
+		public ProductResponseDTO getProductDetails(String id){
+			return catalogue.get(id);
+		}
+		
+		@Override
+		public List<ProductResponseDTO> getProductsByIds(List<String> ids){
+			List<ProductResponseDTO> products = new ArrayList<>(ids.size());
+			for (String id: ids){
+				ProductResponseDTO product = catalogue.get(id);
+				if (product != null){
+					products.add(product);
+				}
+			}
+			return products;
+		}
+		
+		@Override
+		public List<ProductResponseDTO> getProductsByIds(List<String> ids, Request.Options options){
+			return getProductsByIds(ids);
+		}
+		
+		@Override
+		public List<ProductAvailabilityDTO> checkAvailability(List<ItemQuantityDTO> items){
+			List<ProductAvailabilityDTO> availability = new ArrayList<>(items.size());
+			for (ItemQuantityDTO item: items){
+				availability.add(new ProductAvailabilityDTO(item.getProductId(), item.getQuantity(),
+						catalogue.containsKey(item.getProductId())));
+			}
+			return availability;
+		}
+	}
+	
+	// a result row of a Tuple query, looked up by alias like Hibernate's
+	public static class MapTuple implements Tuple {
+		private final Map<String, Object> values;
+		
+		public MapTuple(Map<String, Object> values){
+			this.values = values;
+		}
+		
+		@Override
+		public <X> X get(TupleElement<X> tupleElement){
+			return tupleElement.getJavaType().cast(values.get(tupleElement.getAlias()));
+		}
+		
+		@Override
+		public <X> X get(String alias, Class<X> type){
+			return type.cast(values.get(alias));
+		}
+		
+		@Override
+		public Object get(String alias){
+			return values.get(alias);
+		}
+		
+		@Override
+		public <X> X get(int i, Class<X> type){
+			return type.cast(toArray()[i]);
+		}
+		
+		@Override
+		public Object get(int i){
+			return toArray()[i];
+		}
+		
+		@Override
+		public Object[] toArray(){
+			return values.values().toArray();
+		}
+		
+		@Override
+		public List<TupleElement<?>> getElements(){
+			return List.of();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.beaconfire.ordermanagement.repository;
+
+import com.beaconfire.ordermanagement.benchmark.Fixtures;
+import com.beaconfire.ordermanagement.dto.OrderResponseDTO;
+import com.beaconfire.ordermanagement.entity.Order;
+import com.beaconfire.ordermanagement.service.OrderMapper;
+import jakarta.persistence.Tuple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-01-30
+ */
+/*
+* two ways to build OrderResponseDTO:
+* - OrderMapper.toResponseDTO from a loaded entity graph (createOrder, cancel, return)
+* - OrderQueryRepository.toOrderResponses from projection rows (getAll, getOrderDetails)
+* only the mapping is measured here; the persistence-context work the projection avoids
+* (snapshots, dirty checking, proxies) comes on top for the entity path in production.
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+	@Param({"1", "10", "100"})
+	private int orderSize;
+	
+	private Order order;
+	private List<Tuple> rows;
+	private List<String> orderIds;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		order = Fixtures.order(orderSize, false);
+		rows = Fixtures.rows(order);
+		orderIds = List.of(order.getId());
+	}
+	
+	@Benchmark
+	public OrderResponseDTO mapperFromEntity(){
+		return OrderMapper.toResponseDTO(order);
+	}
+	
+	@Benchmark
+	public List<OrderResponseDTO> projectionFromRows(){
+		return OrderQueryRepository.toOrderResponses(rows, orderIds);
+	}
+}
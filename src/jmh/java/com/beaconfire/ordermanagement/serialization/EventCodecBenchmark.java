@@ -0,0 +1,147 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import com.beaconfire.ordermanagement.benchmark.Fixtures;
+import com.beaconfire.ordermanagement.dto.InventoryReductionEvent;
+import com.beaconfire.ordermanagement.dto.ItemToReduce;
+import com.beaconfire.ordermanagement.dto.OrderRefundRequestedEvent;
+import com.beaconfire.ordermanagement.entity.Order;
+import com.beaconfire.ordermanagement.entity.RefundType;
+import com.beaconfire.ordermanagement.entity.ReturnedItem;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+/*
+* record value encode/decode, JSON (type headers, as configured today) vs. the compact format
+* the record sizes are printed once per trial:
+*   mvn -Pjmh test-compile exec:exec -Djmh.args="EventCodec -f 1 -wi 3 -i 5"
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+	private static final String TOPIC = "inventory.order-placed";
+	
+	@Param({"1", "10", "100"})
+	private int basketSize;
+	
+	private JsonSerializer<Object> jsonSerializer;
+	private JsonDeserializer<Object> jsonDeserializer;
+	private CompactEventSerializer compactSerializer;
+	private CompactEventDeserializer compactDeserializer;
+	
+	private InventoryReductionEvent inventoryReduction;
+	private OrderRefundRequestedEvent refundRequest;
+	
+	private Headers inventoryReductionHeaders;
+	private byte[] inventoryReductionJson;
+	private byte[] inventoryReductionCompact;
+	private Headers refundRequestHeaders;
+	private byte[] refundRequestJson;
+	private byte[] refundRequestCompact;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		jsonSerializer = new JsonSerializer<>(Jackson2ObjectMapperBuilder.json().build());
+		jsonDeserializer = new JsonDeserializer<>(Jackson2ObjectMapperBuilder.json().build());
+		// the headers are reused by every invocation, so the type headers must stay after the first one
+		jsonDeserializer.configure(Map.of(
+				JsonDeserializer.TRUSTED_PACKAGES, "com.beaconfire.ordermanagement.dto",
+				JsonDeserializer.REMOVE_TYPE_INFO_HEADERS, false), false);
+		
+		EventSchemaRegistry registry = new EventSchemaRegistry(
+				List.of(InventoryReductionEvent.class, OrderRefundRequestedEvent.class));
+		compactSerializer = new CompactEventSerializer(registry);
+		compactDeserializer = new CompactEventDeserializer(registry, jsonDeserializer);
+		
+		Order order = Fixtures.order(basketSize, true);
+		List<ItemToReduce> itemsToReduce = order.getItems().stream()
+				.map(item -> new ItemToReduce(item.getProductId(), item.getQuantity()))
+				.toList();
+		inventoryReduction = new InventoryReductionEvent(order.getId(), itemsToReduce, LocalDateTime.now());
+		refundRequest = OrderRefundRequestedEvent.builder()
+				.orderId(order.getId())
+				.paymentTransactionId("txn-" + order.getId())
+				.refundAmount(order.getTotalAmount())
+				.userId(order.getUserId())
+				.refundReasonCode("DAMAGED")
+				.refundType(RefundType.CANCELLATION)
+				.isFullRefund(false)
+				.returnedItemIds(order.getAllReturnedItems().stream().map(ReturnedItem::getId).toList())
+				.build();
+		
+		// the JSON deserializer finds the class through the type header the serializer adds
+		inventoryReductionHeaders = new RecordHeaders();
+		inventoryReductionJson = jsonSerializer.serialize(TOPIC, inventoryReductionHeaders, inventoryReduction);
+		inventoryReductionCompact = compactSerializer.serialize(TOPIC, inventoryReduction);
+		refundRequestHeaders = new RecordHeaders();
+		refundRequestJson = jsonSerializer.serialize(TOPIC, refundRequestHeaders, refundRequest);
+		refundRequestCompact = compactSerializer.serialize(TOPIC, refundRequest);
+		
+		System.out.printf("%nbasket %d: InventoryReductionEvent json=%d bytes compact=%d bytes, "
+						+ "OrderRefundRequestedEvent json=%d bytes compact=%d bytes%n",
+				basketSize, inventoryReductionJson.length, inventoryReductionCompact.length,
+				refundRequestJson.length, refundRequestCompact.length);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown(){
+		jsonSerializer.close();
+		jsonDeserializer.close();
+	}
+	
+	@Benchmark
+	public byte[] jsonSerializeInventoryReduction(){
+		return jsonSerializer.serialize(TOPIC, new RecordHeaders(), inventoryReduction);
+	}
+	
+	@Benchmark
+	public byte[] compactSerializeInventoryReduction(){
+		return compactSerializer.serialize(TOPIC, inventoryReduction);
+	}
+	
+	@Benchmark
+	public Object jsonDeserializeInventoryReduction(){
+		return jsonDeserializer.deserialize(TOPIC, inventoryReductionHeaders, inventoryReductionJson);
+	}
+	
+	@Benchmark
+	public Object compactDeserializeInventoryReduction(){
+		return compactDeserializer.deserialize(TOPIC, inventoryReductionHeaders, inventoryReductionCompact);
+	}
+	
+	@Benchmark
+	public byte[] jsonSerializeRefundRequest(){
+		return jsonSerializer.serialize(TOPIC, new RecordHeaders(), refundRequest);
+	}
+	
+	@Benchmark
+	public byte[] compactSerializeRefundRequest(){
+		return compactSerializer.serialize(TOPIC, refundRequest);
+	}
+	
+	@Benchmark
+	public Object jsonDeserializeRefundRequest(){
+		return jsonDeserializer.deserialize(TOPIC, refundRequestHeaders, refundRequestJson);
+	}
+	
+	@Benchmark
+	public Object compactDeserializeRefundRequest(){
+		return compactDeserializer.deserialize(TOPIC, refundRequestHeaders, refundRequestCompact);
+	}
+}
@@ -0,0 +1,91 @@
+package com.beaconfire.ordermanagement.service;
+
+import com.beaconfire.ordermanagement.benchmark.Fixtures;
+import com.beaconfire.ordermanagement.benchmark.Stubs;
+import com.beaconfire.ordermanagement.client.payment.PaymentServiceClient;
+import com.beaconfire.ordermanagement.client.product.ProductCatalogCache;
+import com.beaconfire.ordermanagement.client.product.ProductServiceClient;
+import com.beaconfire.ordermanagement.client.shipment.ShipmentServiceClient;
+import com.beaconfire.ordermanagement.dto.ItemQuantityDTO;
+import com.beaconfire.ordermanagement.entity.OrderItem;
+import com.beaconfire.ordermanagement.repository.OrderRepository;
+import com.beaconfire.ordermanagement.repository.ReturnedItemRepository;
+import com.beaconfire.ordermanagement.service.support.DownstreamCallRunner;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-01-30
+ */
+/*
+* pricing step of createOrder: bulk availability check, product details from the
+* (warm) product cache, OrderItem snapshots and the grand total
+* */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPlacementBenchmark {
+	@Param({"1", "10", "100"})
+	private int basketSize;
+	
+	private OrderService orderService;
+	private List<ItemQuantityDTO> basket;
+	private List<OrderItem> pricedItems;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ProductServiceClient productClient = new Stubs.InMemoryProductServiceClient(1000);
+		ProductCatalogCache productCatalog = new ProductCatalogCache(productClient, meterRegistry,
+				10_000, Duration.ofMinutes(10), Duration.ofMinutes(8));
+		
+		// publishers and caches are not used while pricing
+		orderService = new OrderService(
+				new DownstreamCallRunner(Runnable::run, meterRegistry, false, Duration.ofMillis(300)),
+				Runnable::run,
+				Stubs.unsupported(OrderRepository.class),
+				null,
+				Stubs.unsupported(ReturnedItemRepository.class),
+				null, null, null,
+				productClient,
+				productCatalog,
+				null, null,
+				Stubs.unsupported(PaymentServiceClient.class),
+				Stubs.unsupported(ShipmentServiceClient.class),
+				Stubs.unsupported(PlatformTransactionManager.class),
+				meterRegistry,
+				BulkheadRegistry.ofDefaults(),
+				Duration.ofSeconds(3),
+				1000,
+				Duration.ofMinutes(10));
+		
+		basket = Fixtures.basket(basketSize);
+		pricedItems = orderService.buildOrderItems(basket);
+	}
+	
+	@Benchmark
+	public List<OrderItem> buildOrderItems(){
+		return orderService.buildOrderItems(basket);
+	}
+	
+	@Benchmark
+	public BigDecimal calculateGrandTotal(){
+		return orderService.calculateGrandTotal(pricedItems);
+	}
+	
+	@Benchmark
+	public BigDecimal priceBasket(){
+		return orderService.calculateGrandTotal(orderService.buildOrderItems(basket));
+	}
+}
@@ -0,0 +1,88 @@
+package com.beaconfire.ordermanagement.service;
+
+import com.beaconfire.ordermanagement.benchmark.Fixtures;
+import com.beaconfire.ordermanagement.benchmark.Stubs;
+import com.beaconfire.ordermanagement.client.payment.PaymentServiceClient;
+import com.beaconfire.ordermanagement.client.product.ProductServiceClient;
+import com.beaconfire.ordermanagement.client.shipment.ShipmentServiceClient;
+import com.beaconfire.ordermanagement.dto.ItemQuantityDTO;
+import com.beaconfire.ordermanagement.dto.ReturnOrderRequestDTO;
+import com.beaconfire.ordermanagement.entity.Order;
+import com.beaconfire.ordermanagement.entity.OrderItem;
+import com.beaconfire.ordermanagement.repository.OrderRepository;
+import com.beaconfire.ordermanagement.repository.ReturnedItemRepository;
+import com.beaconfire.ordermanagement.service.support.DownstreamCallRunner;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-01-30
+ */
+// validation of a return request and the refund total walk over every item and returned item
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderReturnBenchmark {
+	@Param({"1", "10", "100"})
+	private int orderSize;
+	
+	private OrderService orderService;
+	private Order deliveredOrder;
+	private Order returnedOrder;
+	private ReturnOrderRequestDTO returnRequest;
+	
+	@Setup(Level.Trial)
+	public void setUp(){
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		
+		// validateReturnItems only reads the order
+		orderService = new OrderService(
+				new DownstreamCallRunner(Runnable::run, meterRegistry, false, Duration.ofMillis(300)),
+				Runnable::run,
+				Stubs.unsupported(OrderRepository.class),
+				null,
+				Stubs.unsupported(ReturnedItemRepository.class),
+				null, null, null,
+				Stubs.unsupported(ProductServiceClient.class),
+				null, null, null,
+				Stubs.unsupported(PaymentServiceClient.class),
+				Stubs.unsupported(ShipmentServiceClient.class),
+				Stubs.unsupported(PlatformTransactionManager.class),
+				meterRegistry,
+				BulkheadRegistry.ofDefaults(),
+				Duration.ofSeconds(3),
+				1000,
+				Duration.ofMinutes(10));
+		
+		deliveredOrder = Fixtures.order(orderSize, false);
+		returnedOrder = Fixtures.order(orderSize, true);
+		
+		// return everything: the full-return check sees every line
+		List<ItemQuantityDTO> itemsToReturn = deliveredOrder.getItems().stream()
+				.map(item -> new ItemQuantityDTO(item.getProductId(), item.getQuantity()))
+				.toList();
+		returnRequest = new ReturnOrderRequestDTO();
+		returnRequest.setItemsToReturn(itemsToReturn);
+	}
+	
+	@Benchmark
+	public boolean validateReturnItems(){
+		return orderService.validateReturnItems(deliveredOrder, returnRequest);
+	}
+	
+	@Benchmark
+	public BigDecimal totalRefundAmount(){
+		return returnedOrder.getTotalRefundAmount();
+	}
+}
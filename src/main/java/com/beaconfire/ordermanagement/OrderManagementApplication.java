@@ -3,9 +3,11 @@ package com.beaconfire.ordermanagement;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients // to enable scanning @FeignClient annotation
+@EnableScheduling   // for the outbox relay
 public class OrderManagementApplication {
 	
 	public static void main(String[] args) {
@@ -3,6 +3,7 @@ package com.beaconfire.ordermanagement.client.payment;
 import com.beaconfire.ordermanagement.dto.PaymentRequestDTO;
 import com.beaconfire.ordermanagement.dto.PaymentResponseDTO;
 import com.beaconfire.ordermanagement.exception.PaymentServiceUnavailableException;
+import feign.Request;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
@@ -44,4 +45,8 @@ public interface PaymentServiceClient {
 	
 	@GetMapping("/apiv1/payments/{orderId}")
 	PaymentResponseDTO getPaymentByOrder(@PathVariable("orderId") String orderId);
+	
+	// same call with per-request timeouts, e.g. what is left of the caller's deadline
+	@GetMapping("/apiv1/payments/{orderId}")
+	PaymentResponseDTO getPaymentByOrder(@PathVariable("orderId") String orderId, Request.Options options);
 }
\ No newline at end of file
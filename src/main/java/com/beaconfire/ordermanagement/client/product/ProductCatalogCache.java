@@ -0,0 +1,146 @@
+package com.beaconfire.ordermanagement.client.product;
+
+import com.beaconfire.ordermanagement.dto.ProductResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author luluxue
+ * @date 2026-01-23
+ */
+/*
+* bounded in-process cache in front of ProductServiceClient for names and prices
+* - entries expire after expire-after-write and are reloaded in the background
+*   once they are older than refresh-after-write, so hot SKUs rarely miss
+* - a missing product is not cached
+* - price changes invalidate entries through ProductEventConsumer
+* availability is never cached, it is always checked against product-service
+* */
+@Component
+@Slf4j
+public class ProductCatalogCache {
+	private final ProductServiceClient productClient;
+	private final LoadingCache<String, ProductResponseDTO> cache;
+	// generation of each product's last invalidation, a fetch that started before it does not write back
+	private final Cache<String, Long> invalidations;
+	private final AtomicLong generation = new AtomicLong();
+	
+	public ProductCatalogCache(ProductServiceClient productClient,
+	                           MeterRegistry meterRegistry,
+	                           @Value("${app.product-cache.max-size:10000}") long maxSize,
+	                           @Value("${app.product-cache.expire-after-write:10m}") Duration expireAfterWrite,
+	                           @Value("${app.product-cache.refresh-after-write:8m}") Duration refreshAfterWrite){
+		this.productClient = productClient;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(expireAfterWrite)
+				.refreshAfterWrite(refreshAfterWrite)
+				.recordStats()
+				.build(new ProductLoader(productClient));
+		this.invalidations = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(expireAfterWrite)
+				.build();
+		
+		// cache.gets{result=hit|miss}, cache.evictions, cache.size ...
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "productCatalog");
+	}
+	
+	public Optional<ProductResponseDTO> getProduct(String productId){
+		return Optional.ofNullable(cache.get(productId));
+	}
+	
+	// missing products are left out of the result, one bulk call for all misses
+	public Map<String, ProductResponseDTO> getProducts(Collection<String> productIds){
+		return cache.getAll(productIds);
+	}
+	
+	/*
+	* same as getProducts, but the misses are fetched with the given Feign timeouts
+	* the loading cache would wait for the default client timeout,
+	* which a caller with a deadline cannot afford
+	* */
+	public Map<String, ProductResponseDTO> getProducts(Collection<String> productIds, Request.Options options){
+		Map<String, ProductResponseDTO> productsById = new HashMap<>(cache.getAllPresent(productIds));
+		
+		List<String> missing = productIds.stream()
+				.filter(id -> !productsById.containsKey(id))
+				.distinct()
+				.toList();
+		if (missing.isEmpty()){
+			return productsById;
+		}
+		
+		long fetchedAt = generation.get();
+		List<ProductResponseDTO> products = productClient.getProductsByIds(missing, options);
+		if (products != null){
+			for (ProductResponseDTO product: products){
+				productsById.put(product.getProductId(), product);
+				cacheUnlessInvalidated(product, fetchedAt);
+			}
+		}
+		return productsById;
+	}
+	
+	/*
+	* a price change that lands while the fetch runs invalidates the product before its old price
+	* arrives here, writing it back would keep that price until the next refresh.
+	* compute holds the product's invalidation record: an invalidation either comes first
+	* and is seen here, or comes after the put and removes the entry again
+	* */
+	private void cacheUnlessInvalidated(ProductResponseDTO product, long fetchedAt){
+		invalidations.asMap().compute(product.getProductId(), (productId, invalidatedAt) -> {
+			if (invalidatedAt == null || invalidatedAt <= fetchedAt){
+				cache.put(productId, product);
+			}
+			return invalidatedAt;
+		});
+	}
+	
+	public void invalidate(Collection<String> productIds){
+		long invalidatedAt = generation.incrementAndGet();
+		for (String productId: productIds){
+			invalidations.put(productId, invalidatedAt);
+		}
+		cache.invalidateAll(productIds);
+		log.info("Invalidated {} cached products", productIds.size());
+	}
+	
+	private static class ProductLoader implements CacheLoader<String, ProductResponseDTO> {
+		private final ProductServiceClient productClient;
+		
+		ProductLoader(ProductServiceClient productClient){
+			this.productClient = productClient;
+		}
+		
+		@Override
+		public ProductResponseDTO load(String productId){
+			return productClient.getProductDetails(productId);
+		}
+		
+		@Override
+		public Map<String, ProductResponseDTO> loadAll(Set<? extends String> productIds){
+			List<ProductResponseDTO> products = productClient.getProductsByIds(new ArrayList<>(productIds));
+			
+			Map<String, ProductResponseDTO> productsById = new HashMap<>();
+			if (products != null){
+				for (ProductResponseDTO product: products){
+					productsById.put(product.getProductId(), product);
+				}
+			}
+			return productsById;
+		}
+	}
+}
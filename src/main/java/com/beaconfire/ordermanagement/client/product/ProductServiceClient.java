@@ -1,7 +1,10 @@
 package com.beaconfire.ordermanagement.client.product;
 
+import com.beaconfire.ordermanagement.dto.ItemQuantityDTO;
+import com.beaconfire.ordermanagement.dto.ProductAvailabilityDTO;
 import com.beaconfire.ordermanagement.dto.ProductResponseDTO;
 import feign.FeignException;
+import feign.Request;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import org.slf4j.Logger;
@@ -10,6 +13,8 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
@@ -57,4 +62,26 @@ public interface ProductServiceClient {
 	
 	@GetMapping("/api/v1/products/bulk")
 	List<ProductResponseDTO> getProductsByIds(@RequestParam("ids") List<String> ids);
+	
+	// same call with per-request timeouts, e.g. what is left of the caller's deadline
+	@GetMapping("/api/v1/products/bulk")
+	List<ProductResponseDTO> getProductsByIds(@RequestParam("ids") List<String> ids, Request.Options options);
+	
+	// 3. check inventory for a whole basket in one round trip
+	@PostMapping("/api/v1/products/availability/bulk")
+	@CircuitBreaker(
+			name = "productServiceCB",
+			fallbackMethod = "fallbackBulkInventoryCheck"
+	)
+	List<ProductAvailabilityDTO> checkAvailability(@RequestBody List<ItemQuantityDTO> items);
+	
+	// same "fail-safe" rule as the single check: every line is reported unavailable
+	default List<ProductAvailabilityDTO> fallbackBulkInventoryCheck(List<ItemQuantityDTO> items, Throwable t){
+		log.error("Failed to check stock for {} products, " +
+				"Circuit Breaker triggered for Product Service. Reason: {}", items.size(), t.getMessage());
+		
+		return items.stream()
+				.map(item -> new ProductAvailabilityDTO(item.getProductId(), item.getQuantity(), false))
+				.toList();
+	}
 }
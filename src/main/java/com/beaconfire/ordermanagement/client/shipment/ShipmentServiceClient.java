@@ -1,6 +1,7 @@
 package com.beaconfire.ordermanagement.client.shipment;
 
 import com.beaconfire.ordermanagement.dto.ShipmentResponseDTO;
+import feign.Request;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -20,4 +21,8 @@ public interface ShipmentServiceClient {
 	// 1. check inventory
 	@GetMapping("/api/v1/shipment/order/{orderId}}")
 	ShipmentResponseDTO getShipmentInfo(@PathVariable("orderId") String orderId);
+	
+	// same call with per-request timeouts, e.g. what is left of the caller's deadline
+	@GetMapping("/api/v1/shipment/order/{orderId}}")
+	ShipmentResponseDTO getShipmentInfo(@PathVariable("orderId") String orderId, Request.Options options);
 }
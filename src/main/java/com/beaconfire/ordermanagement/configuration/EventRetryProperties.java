@@ -0,0 +1,65 @@
+package com.beaconfire.ordermanagement.configuration;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author luluxue
+ * @date 2026-02-06
+ */
+/*
+* retry tiers for inbound events, bound from app.kafka.retry
+* tier i is the topic <topicPrefix>-<i>, its records wait initialDelay * multiplier^i
+* before they are handled again; after the last tier the event goes to the dead-letter topic
+* */
+@Data
+@Validated
+@Component
+@ConfigurationProperties(prefix = "app.kafka.retry")
+public class EventRetryProperties {
+	private boolean enabled = true;
+	@Min(1)
+	private int tiers = 3;
+	@NotNull
+	private Duration initialDelay = Duration.ofSeconds(1);
+	@DecimalMin("1.0")
+	private double multiplier = 5;
+	@NotBlank
+	private String topicPrefix = "order-events.retry";
+	@NotBlank
+	private String deadLetterTopic = "order-events.dlt";
+	@NotBlank
+	private String groupId = "order-events-retry";
+	@NotBlank
+	private String replayGroupId = "order-events-dlt-replay";
+	@NotNull
+	private Duration sendTimeout = Duration.ofSeconds(10);
+	
+	public String tierTopic(int tier){
+		return topicPrefix + "-" + tier;
+	}
+	
+	public Duration delayOf(int tier){
+		return Duration.ofMillis(Math.round(initialDelay.toMillis() * Math.pow(multiplier, tier)));
+	}
+	
+	// every retry tier, then the dead-letter topic
+	public List<String> topics(){
+		List<String> topics = new ArrayList<>(tiers + 1);
+		for (int tier = 0; tier < tiers; tier++){
+			topics.add(tierTopic(tier));
+		}
+		topics.add(deadLetterTopic);
+		return topics;
+	}
+}
@@ -0,0 +1,84 @@
+package com.beaconfire.ordermanagement.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author luluxue
+ * @date 2026-01-21
+ */
+/*
+* Executor wrapper that records the same metrics for both the virtual-thread
+* and the platform-pool mode: queued, active and rejected tasks, queue wait and run time
+* */
+public class InstrumentedExecutor implements Executor {
+	private final ExecutorService delegate;
+	private final AtomicInteger queued = new AtomicInteger();
+	private final AtomicInteger active = new AtomicInteger();
+	private final Timer waitTimer;
+	private final Timer runTimer;
+	private final Counter rejectedCounter;
+	
+	public InstrumentedExecutor(String name, ExecutorService delegate, MeterRegistry meterRegistry){
+		this.delegate = delegate;
+		
+		Gauge.builder("executor.tasks.queued", queued, AtomicInteger::get)
+				.description("Tasks submitted but not started yet")
+				.tag("name", name)
+				.register(meterRegistry);
+		Gauge.builder("executor.tasks.active", active, AtomicInteger::get)
+				.description("Tasks currently running")
+				.tag("name", name)
+				.register(meterRegistry);
+		this.waitTimer = Timer.builder("executor.tasks.wait")
+				.description("Time between submit and start of a task")
+				.tag("name", name)
+				.register(meterRegistry);
+		this.runTimer = Timer.builder("executor.tasks.run")
+				.description("Run time of a task")
+				.tag("name", name)
+				.register(meterRegistry);
+		this.rejectedCounter = Counter.builder("executor.tasks.rejected")
+				.description("Tasks rejected because pool and queue were full")
+				.tag("name", name)
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public void execute(Runnable task){
+		long submittedAt = System.nanoTime();
+		queued.incrementAndGet();
+		try {
+			delegate.execute(() -> {
+				queued.decrementAndGet();
+				active.incrementAndGet();
+				long startedAt = System.nanoTime();
+				waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+				try {
+					task.run();
+				} finally {
+					runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+					active.decrementAndGet();
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			// never queued
+			queued.decrementAndGet();
+			rejectedCounter.increment();
+			throw ex;
+		}
+	}
+	
+	// picked up by Spring as the bean's destroy method
+	public void shutdown(){
+		delegate.shutdown();
+	}
+}
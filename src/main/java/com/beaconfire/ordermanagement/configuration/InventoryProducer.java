@@ -2,7 +2,7 @@ package com.beaconfire.ordermanagement.configuration;
 
 import com.beaconfire.ordermanagement.dto.InventoryReductionEvent;
 import com.beaconfire.ordermanagement.dto.InventoryRestockEvent;
-import org.springframework.kafka.core.KafkaTemplate;
+import com.beaconfire.ordermanagement.service.outbox.OutboxWriter;
 import org.springframework.stereotype.Component;
 
 /**
@@ -11,20 +11,20 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class InventoryProducer {
-	private final KafkaTemplate<String, Object> kafkaTemplate;
-	private static final String REDUCTION_TOPIC = "inventory.order-placed";
-	private static final String RESTOCK_TOPIC = "inventory.restock-requests";
+	private final OutboxWriter outboxWriter;
+	private final KafkaTopics topics;
 	
-	public InventoryProducer(KafkaTemplate<String, Object> kafkaTemplate){
-		this.kafkaTemplate = kafkaTemplate;
+	public InventoryProducer(OutboxWriter outboxWriter, KafkaTopics topics){
+		this.outboxWriter = outboxWriter;
+		this.topics = topics;
 	}
 	
 	public void sendInventoryReductionEvent(InventoryReductionEvent event){
-		kafkaTemplate.send(REDUCTION_TOPIC, event.getOrderId(), event);
+		outboxWriter.enqueue(topics.getInventoryReduction(), event.getOrderId(), event);
 	}
 	
 	
 	public void sendInventoryRestockEvent(InventoryRestockEvent event){
-		kafkaTemplate.send(RESTOCK_TOPIC, event.getOrderId(), event);
+		outboxWriter.enqueue(topics.getInventoryRestock(), event.getOrderId(), event);
 	}
 }
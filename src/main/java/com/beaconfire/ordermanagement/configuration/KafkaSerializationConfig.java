@@ -0,0 +1,151 @@
+package com.beaconfire.ordermanagement.configuration;
+
+import com.beaconfire.ordermanagement.consumer.util.EventRetryTiers;
+import com.beaconfire.ordermanagement.serialization.CompactEventDeserializer;
+import com.beaconfire.ordermanagement.serialization.CompactEventSerializer;
+import com.beaconfire.ordermanagement.serialization.EventSchemaEndpoint;
+import com.beaconfire.ordermanagement.serialization.EventSchemaRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTopicDeserializer;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.util.ClassUtils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+/*
+* compact binary record values on the topics listed in app.kafka.binary.topics,
+* JSON (as configured in spring.kafka.*) on every other topic.
+* producer and consumer side switch together; the consumer still reads JSON records
+* on a binary topic, so a topic can be switched while old records are in flight.
+* a topic consumed by another service must only be switched once that service reads the format.
+*
+* a record neither format can read (e.g. written by a newer schema that changed a field's type)
+* does not block its partition: ErrorHandlingDeserializer hands the listener an empty value,
+* and the error handler sends the raw bytes to the dead-letter topic. the retry tier and
+* dead-letter topics read both formats, so a replay after the fix decodes them.
+* */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(prefix = "app.kafka.binary", name = "enabled", havingValue = "true")
+public class KafkaSerializationConfig {
+	private static final String EVENT_PACKAGE = "com.beaconfire.ordermanagement.dto";
+	private static final LogAccessor LOG = new LogAccessor(KafkaSerializationConfig.class);
+	
+	private final List<String> binaryTopics;
+	private final EventRetryProperties retryProperties;
+	
+	public KafkaSerializationConfig(@Value("${app.kafka.binary.topics:}") List<String> binaryTopics,
+	                                EventRetryProperties retryProperties){
+		this.binaryTopics = binaryTopics.stream().map(String::trim).filter(topic -> !topic.isEmpty()).toList();
+		this.retryProperties = retryProperties;
+	}
+	
+	// every *Event DTO is registered up front, so a consumer can read any of them
+	@Bean
+	public EventSchemaRegistry eventSchemaRegistry(){
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*Event")));
+		
+		List<Class<?>> eventTypes = new ArrayList<>();
+		scanner.findCandidateComponents(EVENT_PACKAGE).forEach(candidate ->
+				eventTypes.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), getClass().getClassLoader())));
+		
+		EventSchemaRegistry registry = new EventSchemaRegistry(eventTypes);
+		log.info("Compact event format on topics {}, {} event schemas registered", binaryTopics, eventTypes.size());
+		return registry;
+	}
+	
+	@Bean
+	public EventSchemaEndpoint eventSchemaEndpoint(EventSchemaRegistry registry){
+		return new EventSchemaEndpoint(registry);
+	}
+	
+	@Bean
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public DefaultKafkaProducerFactoryCustomizer compactEventProducerCustomizer(EventSchemaRegistry registry){
+		return producerFactory -> {
+			JsonSerializer<Object> json = new JsonSerializer<>();
+			json.configure(producerFactory.getConfigurationProperties(), false);
+			
+			Map<Pattern, Serializer<?>> delegates = new LinkedHashMap<>();
+			CompactEventSerializer compact = new CompactEventSerializer(registry);
+			binaryTopics.forEach(topic -> delegates.put(Pattern.compile(Pattern.quote(topic)), compact));
+			
+			// serializers are thread-safe, one instance is shared by all producers;
+			// raw bytes are undecodable records on their way to the dead-letter topic, sent as they are
+			Serializer<Object> valueSerializer = new DelegatingByTypeSerializer(Map.of(
+					byte[].class, new ByteArraySerializer(),
+					Object.class, new DelegatingByTopicSerializer(delegates, json)), true);
+			((DefaultKafkaProducerFactory) producerFactory).setValueSerializerSupplier(() -> valueSerializer);
+		};
+	}
+	
+	@Bean
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public DefaultKafkaConsumerFactoryCustomizer compactEventConsumerCustomizer(EventSchemaRegistry registry){
+		return consumerFactory -> {
+			Map<String, Object> configs = consumerFactory.getConfigurationProperties();
+			
+			// one deserializer per consumer, like the configured JsonDeserializer class would be
+			((DefaultKafkaConsumerFactory) consumerFactory).setValueDeserializerSupplier(() -> {
+				JsonDeserializer<Object> json = new JsonDeserializer<>();
+				json.configure(configs, false);
+				
+				Map<Pattern, Deserializer<?>> delegates = new LinkedHashMap<>();
+				CompactEventDeserializer compact = new CompactEventDeserializer(registry, json);
+				binaryTopics.forEach(topic -> delegates.put(Pattern.compile(Pattern.quote(topic)), compact));
+				retryProperties.topics().forEach(topic -> delegates.put(Pattern.compile(Pattern.quote(topic)), compact));
+				return new ErrorHandlingDeserializer<>(new DelegatingByTopicDeserializer(delegates, json));
+			});
+		};
+	}
+	
+	/*
+	* a record without a readable value goes to the dead-letter topic right away, no retry
+	* would read it (DeserializationException is not retried). every other failure is
+	* handled as before: retried in place, then logged and skipped
+	* */
+	@Bean
+	public CommonErrorHandler kafkaErrorHandler(EventRetryTiers retryTiers){
+		return new DefaultErrorHandler((record, ex) -> {
+			DeserializationException undecodable = SerializationUtils.getExceptionFromHeader(record,
+					SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG);
+			if (undecodable == null || !retryTiers.isEnabled()){
+				log.error("Backoff exhausted for {}-{}@{}", record.topic(), record.partition(), record.offset(), ex);
+				return;
+			}
+			// the error handler retries the record if it cannot be dead-lettered
+			if (!retryTiers.deadLetterUndecodable(record, undecodable)){
+				throw new IllegalStateException("Could not dead-letter undecodable record "
+						+ record.topic() + "-" + record.partition() + "@" + record.offset(), undecodable);
+			}
+		});
+	}
+}
@@ -0,0 +1,167 @@
+package com.beaconfire.ordermanagement.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-02-04
+ */
+/*
+* at startup, before the listener containers, the retry tier consumers and the outbox relay run:
+* 1. check that every topic in KafkaTopics (and the retry tiers, if on) exists on the broker
+*    mode off:    skip the check and the warm-up
+*    mode warn:   log missing topics and keep running
+*    mode fail:   stop the startup when a topic is missing or the broker cannot be reached
+*    mode create: create missing topics with the broker's default partitions/replication,
+*                 the stand-in for local and embedded (test) brokers
+* 2. load the producer metadata of every producer topic, so the first send to a topic
+*    does not wait for a metadata fetch
+* the lifecycle phase comes before the Kafka containers, and @Scheduled tasks only start once every
+* lifecycle bean has started: nothing is consumed or relayed before the check passed
+* */
+@Component
+@Slf4j
+public class KafkaTopicInitializer implements SmartLifecycle {
+	enum Mode { OFF, WARN, FAIL, CREATE }
+	
+	private final KafkaTopics topics;
+	private final EventRetryProperties retryProperties;
+	private final KafkaAdmin kafkaAdmin;
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final Mode mode;
+	private final Duration timeout;
+	private volatile boolean running;
+	
+	public KafkaTopicInitializer(KafkaTopics topics,
+	                             EventRetryProperties retryProperties,
+	                             KafkaAdmin kafkaAdmin,
+	                             KafkaTemplate<String, Object> kafkaTemplate,
+	                             @Value("${app.kafka.topic-check.mode:warn}") String mode,
+	                             @Value("${app.kafka.topic-check.timeout:10s}") Duration timeout){
+		this.topics = topics;
+		this.retryProperties = retryProperties;
+		this.kafkaAdmin = kafkaAdmin;
+		this.kafkaTemplate = kafkaTemplate;
+		this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+		this.timeout = timeout;
+	}
+	
+	@Override
+	public void start(){
+		initializeTopics();
+		running = true;
+	}
+	
+	@Override
+	public void stop(){
+		running = false;
+	}
+	
+	// the outbox relay does not send before this
+	@Override
+	public boolean isRunning(){
+		return running;
+	}
+	
+	@Override
+	public int getPhase(){
+		return AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+	}
+	
+	private void initializeTopics(){
+		if (mode == Mode.OFF){
+			return;
+		}
+		
+		// 1. existence check
+		Set<String> missing;
+		try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())){
+			missing = findMissing(admin);
+			if (mode == Mode.CREATE && !missing.isEmpty()){
+				createTopics(admin, missing);
+				missing = findMissing(admin);
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (Exception ex) {
+			if (mode == Mode.FAIL){
+				throw new IllegalStateException("Kafka topics could not be checked", ex);
+			}
+			// without a broker the warm-up would block on every topic, skip it
+			log.warn("Kafka topics could not be checked, skipping metadata warm-up: {}", ex.getMessage());
+			return;
+		}
+		
+		if (!missing.isEmpty()){
+			if (mode == Mode.FAIL){
+				throw new IllegalStateException("Kafka topics missing: " + missing);
+			}
+			log.warn("Kafka topics missing, sends to them will fail and stay in the outbox: {}", missing);
+		}
+		
+		// 2. producer metadata warm-up
+		int warmed = 0;
+		for (String topic: producedTopics()){
+			if (missing.contains(topic)){
+				continue;
+			}
+			try {
+				kafkaTemplate.partitionsFor(topic);
+				warmed++;
+			} catch (Exception ex) {
+				log.warn("Could not load metadata for topic {}: {}", topic, ex.getMessage());
+			}
+		}
+		log.info("Kafka topics checked ({} missing), metadata loaded for {} producer topics", missing.size(), warmed);
+	}
+	
+	// failed inbound events are sent to the retry tiers and the DLT
+	private List<String> producedTopics(){
+		List<String> produced = new ArrayList<>(topics.producedTopics());
+		if (retryProperties.isEnabled()){
+			produced.addAll(retryProperties.topics());
+		}
+		return produced;
+	}
+	
+	private Set<String> findMissing(AdminClient admin) throws Exception {
+		Set<String> existing = admin.listTopics().names().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		Set<String> missing = new TreeSet<>(topics.allTopics());
+		missing.addAll(producedTopics());
+		missing.removeAll(existing);
+		return missing;
+	}
+	
+	private void createTopics(AdminClient admin, Set<String> names) throws Exception {
+		List<NewTopic> newTopics = names.stream()
+				.map(name -> new NewTopic(name, Optional.empty(), Optional.empty()))
+				.toList();
+		for (Map.Entry<String, KafkaFuture<Void>> created: admin.createTopics(newTopics).values().entrySet()){
+			try {
+				created.getValue().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+				log.info("Created Kafka topic {}", created.getKey());
+			} catch (ExecutionException ex) {
+				// created by someone else in the meantime
+				if (!(ex.getCause() instanceof TopicExistsException)){
+					throw ex;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.beaconfire.ordermanagement.configuration;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author luluxue
+ * @date 2026-02-04
+ */
+/*
+* every topic OrderService sends to or listens on, bound from app.kafka.topics
+* the producers take their topic from here; the listeners use the same keys
+* as ${app.kafka.topics.*} placeholders, so both sides read one list
+* */
+@Data
+@Validated
+@Component
+@ConfigurationProperties(prefix = "app.kafka.topics")
+public class KafkaTopics {
+	// === producer topics (OrderService is the sender) ===
+	@NotBlank
+	private String inventoryReduction;
+	@NotBlank
+	private String inventoryRestock;
+	
+	@NotBlank
+	private String notificationCreate;
+	@NotBlank
+	private String notificationConfirm;
+	@NotBlank
+	private String notificationCancel;
+	@NotBlank
+	private String notificationReturn;
+	@NotBlank
+	private String notificationShip;
+	@NotBlank
+	private String notificationDeliver;
+	
+	@NotBlank
+	private String paymentRequest;
+	@NotBlank
+	private String paymentReturn;
+	@NotBlank
+	private String paymentCancel;
+	
+	// === consumer topics ===
+	@NotBlank
+	private String paymentConfirmed;
+	@NotBlank
+	private String paymentFailed;
+	@NotBlank
+	private String paymentRefundDone;
+	@NotBlank
+	private String paymentRefundFailed;
+	
+	@NotBlank
+	private String inventoryReserved;
+	@NotBlank
+	private String inventoryReservationFailed;
+	
+	@NotBlank
+	private String shipmentShipped;
+	@NotBlank
+	private String shipmentDelivered;
+	
+	@NotBlank
+	private String productPriceChanged;
+	
+	public List<String> producedTopics(){
+		return List.of(inventoryReduction, inventoryRestock,
+				notificationCreate, notificationConfirm, notificationCancel,
+				notificationReturn, notificationShip, notificationDeliver,
+				paymentRequest, paymentReturn, paymentCancel);
+	}
+	
+	public List<String> consumedTopics(){
+		return List.of(paymentConfirmed, paymentFailed, paymentRefundDone, paymentRefundFailed,
+				inventoryReserved, inventoryReservationFailed,
+				shipmentShipped, shipmentDelivered,
+				productPriceChanged);
+	}
+	
+	public Set<String> allTopics(){
+		Set<String> topics = new LinkedHashSet<>(producedTopics());
+		topics.addAll(consumedTopics());
+		return topics;
+	}
+}
@@ -1,7 +1,7 @@
 package com.beaconfire.ordermanagement.configuration;
 
 import com.beaconfire.ordermanagement.dto.*;
-import org.springframework.kafka.core.KafkaTemplate;
+import com.beaconfire.ordermanagement.service.outbox.OutboxWriter;
 import org.springframework.stereotype.Component;
 
 /**
@@ -10,39 +10,35 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class NotificationProducer {
-	private static final String CREATED_TOPIC = "notification.order-placed";
-	private static final String CONFIRMED_TOPIC = "notification.order-confirmed";
-	private static final String CANCELLED_TOPIC = "notification.order-cancelled";
-	private static final String RETURNED_TOPIC = "notification.order-returned";
-	private static final String SHIPPED_TOPIC = "notification.order-shipped";
-	private static final String DELIVERED_TOPIC = "notification.order-delivered";
-	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final OutboxWriter outboxWriter;
+	private final KafkaTopics topics;
 	
-	public NotificationProducer(KafkaTemplate<String, Object> kafkaTemplate){
-		this.kafkaTemplate = kafkaTemplate;
+	public NotificationProducer(OutboxWriter outboxWriter, KafkaTopics topics){
+		this.outboxWriter = outboxWriter;
+		this.topics = topics;
 	}
 	
 	public void sendOrderPlacedNotificationEvent(OrderPlacedNotificationEvent event){
-		kafkaTemplate.send(CREATED_TOPIC, event.getUserId(), event);
+		outboxWriter.enqueue(topics.getNotificationCreate(), event.getOrderId(), event);
 	}
 	
 	public void sendOrderConfirmedNotification(OrderConfirmedNotificationEvent event){
-		kafkaTemplate.send(CONFIRMED_TOPIC, event.getUserId(),event);
+		outboxWriter.enqueue(topics.getNotificationConfirm(), event.getOrderId(), event);
 	}
 	
 	public void sendOrderCancelledNotificationEvent(OrderCancelledNotificationEvent event){
-		kafkaTemplate.send(CANCELLED_TOPIC, event.getUserId(), event);
+		outboxWriter.enqueue(topics.getNotificationCancel(), event.getOrderId(), event);
 	}
 	
 	public void sendOrderReturnedNotificationEvent(OrderReturnedNotificationEvent event){
-		kafkaTemplate.send(RETURNED_TOPIC, event.getUserId(), event);
+		outboxWriter.enqueue(topics.getNotificationReturn(), event.getOrderId(), event);
 	}
 	
 	public void sendOrderShippedNotificationEvent(OrderShippedNotificationEvent event){
-		kafkaTemplate.send(SHIPPED_TOPIC, event.getUserId(), event);
+		outboxWriter.enqueue(topics.getNotificationShip(), event.getOrderId(), event);
 	}
 	
 	public void sendOrderDeliveredNotificationEvent(OrderDeliveredNotificationEvent event){
-		kafkaTemplate.send(DELIVERED_TOPIC, event.getUserId(), event);
+		outboxWriter.enqueue(topics.getNotificationDeliver(), event.getOrderId(), event);
 	}
 }
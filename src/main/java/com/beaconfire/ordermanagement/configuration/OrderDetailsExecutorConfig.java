@@ -0,0 +1,68 @@
+package com.beaconfire.ordermanagement.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.*;
+
+/**
+ * @author luluxue
+ * @date 2026-01-21
+ */
+@Configuration
+@Slf4j
+public class OrderDetailsExecutorConfig {
+	/*
+	* executor for the getOrderDetails fan-out (repository + product, payment, shipment calls)
+	*
+	* mode = virtual:  one virtual thread per task (Java 21+), blocking Feign calls do not tie up
+	*                  carrier threads. the per-downstream bulkheads bound the concurrency.
+	* mode = platform: bounded pool, when pool and queue are full the task is rejected.
+	*                  the section fails fast and gets its fallback (DownstreamCallRunner),
+	*                  running it on the caller would block a request thread for a downstream call.
+	* */
+	@Bean(name = "orderDetailsExecutor")
+	public InstrumentedExecutor orderDetailsExecutor(
+			@Value("${app.order-details.executor.mode:platform}") String mode,
+			@Value("${app.order-details.executor.core-size:16}") int coreSize,
+			@Value("${app.order-details.executor.max-size:64}") int maxSize,
+			@Value("${app.order-details.executor.queue-capacity:200}") int queueCapacity,
+			MeterRegistry meterRegistry){
+		ExecutorService delegate = null;
+		if ("virtual".equalsIgnoreCase(mode)){
+			delegate = newVirtualThreadExecutor();
+		}
+		
+		if (delegate == null){
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(coreSize, maxSize,
+					60L, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(queueCapacity),
+					new CustomizableThreadFactory("order-details-"),
+					new ThreadPoolExecutor.AbortPolicy());
+			pool.allowCoreThreadTimeOut(true);
+			delegate = pool;
+			log.info("Order details executor: platform pool, core={}, max={}, queue={}",
+					coreSize, maxSize, queueCapacity);
+		} else {
+			log.info("Order details executor: virtual threads");
+		}
+		
+		return new InstrumentedExecutor("orderDetailsExecutor", delegate, meterRegistry);
+	}
+	
+	// looked up reflectively so the project still builds and runs on Java 17
+	private ExecutorService newVirtualThreadExecutor(){
+		try {
+			return (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null);
+		} catch (ReflectiveOperationException ex) {
+			log.warn("Virtual threads need Java 21+, falling back to the platform pool");
+			return null;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.beaconfire.ordermanagement.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-01-26
+ */
+@Configuration
+@Slf4j
+public class OrderPlacementExecutorConfig {
+	/*
+	* pipeline stage for orders accepted by POST /api/v1/orders/async:
+	* pricing, the order write and the outbox events run here, not on the request thread.
+	* OrderService only accepts max-in-flight orders at a time and answers 503 above that,
+	* before anything is written. the queue has the same bound, so the executor cannot grow
+	* past the permits even if they are miscounted; a rejected task is rejected as a placement.
+	* */
+	@Bean(name = "orderPlacementExecutor")
+	public InstrumentedExecutor orderPlacementExecutor(
+			@Value("${app.order-placement.workers:8}") int workers,
+			@Value("${app.order-placement.max-in-flight:1000}") int maxInFlight,
+			MeterRegistry meterRegistry){
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers,
+				60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(maxInFlight),
+				new CustomizableThreadFactory("order-placement-"));
+		pool.allowCoreThreadTimeOut(true);
+		log.info("Order placement executor: {} workers, queue of {}", workers, maxInFlight);
+		
+		return new InstrumentedExecutor("orderPlacementExecutor", pool, meterRegistry);
+	}
+}
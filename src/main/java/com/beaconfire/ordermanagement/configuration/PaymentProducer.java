@@ -2,7 +2,7 @@ package com.beaconfire.ordermanagement.configuration;
 
 import com.beaconfire.ordermanagement.dto.OrderChargeRequestEvent;
 import com.beaconfire.ordermanagement.dto.OrderRefundRequestedEvent;
-import org.springframework.kafka.core.KafkaTemplate;
+import com.beaconfire.ordermanagement.service.outbox.OutboxWriter;
 import org.springframework.stereotype.Component;
 
 /**
@@ -11,20 +11,24 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class PaymentProducer {
-	private final KafkaTemplate<String, Object> kafkaTemplate;
-	private static final String CHARGE_TOPIC = "payment.order-request-charge";
-	public static final String CANCELLED_INVENTORY_FAILED_TOPIC = "payment.order-cancelled-refund";
-	public static final String RETURNED_TOPIC = "payment.order-returned-refund";
+	private final OutboxWriter outboxWriter;
+	private final KafkaTopics topics;
 	
-	public PaymentProducer(KafkaTemplate<String, Object> kafkaTemplate){
-		this.kafkaTemplate = kafkaTemplate;
+	public PaymentProducer(OutboxWriter outboxWriter, KafkaTopics topics){
+		this.outboxWriter = outboxWriter;
+		this.topics = topics;
 	}
 	
 	public void sendPaymentRequestEvent(OrderChargeRequestEvent requestEvent){
-		kafkaTemplate.send(CHARGE_TOPIC, requestEvent.getOrderId(), requestEvent);
+		outboxWriter.enqueue(topics.getPaymentRequest(), requestEvent.getOrderId(), requestEvent);
 	}
 	
-	public void sendPaymentRefundEvent(String topic, OrderRefundRequestedEvent refundEvent){
-		kafkaTemplate.send(topic, refundEvent.getOrderId(),refundEvent);
+	// full refund of a cancelled order (cancelled by the user or after an inventory failure)
+	public void sendCancellationRefundEvent(OrderRefundRequestedEvent refundEvent){
+		outboxWriter.enqueue(topics.getPaymentCancel(), refundEvent.getOrderId(), refundEvent);
+	}
+	
+	public void sendReturnRefundEvent(OrderRefundRequestedEvent refundEvent){
+		outboxWriter.enqueue(topics.getPaymentReturn(), refundEvent.getOrderId(), refundEvent);
 	}
 }
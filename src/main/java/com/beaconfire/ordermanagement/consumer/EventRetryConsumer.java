@@ -0,0 +1,145 @@
+package com.beaconfire.ordermanagement.consumer;
+
+import com.beaconfire.ordermanagement.configuration.EventRetryProperties;
+import com.beaconfire.ordermanagement.consumer.util.EventProcessorUtil;
+import com.beaconfire.ordermanagement.consumer.util.EventRetryTiers;
+import com.beaconfire.ordermanagement.consumer.util.EventRouter;
+import com.beaconfire.ordermanagement.consumer.util.OrderLaneDispatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author luluxue
+ * @date 2026-02-06
+ */
+/*
+* consumes the retry tier topics, one container per tier so a long delay on a later
+* tier never holds up an earlier one
+*
+* records of one tier have the same delay and are appended in time order, so when the
+* head of a partition is not due yet nothing behind it is: the record is nacked and the
+* partition paused until it is due (at most MAX_PAUSE, then it is checked again).
+* due records run on the event's order lane like the listeners' events, and go to the
+* next tier (or the DLT) if they fail again. a due record whose order has an earlier event
+* parked on a later tier (it failed again and moved on) is sent after it instead, so it
+* does not overtake it (see EventRetryTiers).
+* */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "app.kafka.retry", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventRetryConsumer implements SmartLifecycle {
+	// well below max.poll.interval.ms, the paused consumer still has to poll
+	private static final Duration MAX_PAUSE = Duration.ofSeconds(30);
+	
+	private final EventRetryTiers retryTiers;
+	private final EventRouter router;
+	private final EventProcessorUtil eventUtil;
+	private final OrderLaneDispatcher laneDispatcher;
+	private final List<ConcurrentMessageListenerContainer<?, ?>> containers = new ArrayList<>();
+	private volatile boolean running;
+	
+	public EventRetryConsumer(ConcurrentKafkaListenerContainerFactory<?, ?> kafkaListenerContainerFactory,
+	                          EventRetryProperties properties,
+	                          EventRetryTiers retryTiers,
+	                          EventRouter router,
+	                          EventProcessorUtil eventUtil,
+	                          OrderLaneDispatcher laneDispatcher){
+		this.retryTiers = retryTiers;
+		this.router = router;
+		this.eventUtil = eventUtil;
+		this.laneDispatcher = laneDispatcher;
+		
+		for (int tier = 0; tier < properties.getTiers(); tier++){
+			ConcurrentMessageListenerContainer<?, ?> container =
+					kafkaListenerContainerFactory.createContainer(properties.tierTopic(tier));
+			ContainerProperties containerProperties = container.getContainerProperties();
+			containerProperties.setGroupId(properties.getGroupId());
+			containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+			container.setBeanName("order-events-retry-" + tier);
+			int tierIndex = tier;
+			container.setupMessageListener((AcknowledgingMessageListener<String, Object>) (record, ack) ->
+					onRecord(tierIndex, record, ack));
+			containers.add(container);
+		}
+	}
+	
+	private void onRecord(int tier, ConsumerRecord<String, Object> record, Acknowledgment ack){
+		// 1. not due yet
+		long waitMs = retryTiers.dueAtOf(record) - System.currentTimeMillis();
+		if (waitMs > 0){
+			ack.nack(Duration.ofMillis(Math.min(waitMs, MAX_PAUSE.toMillis())));
+			return;
+		}
+		
+		// 2. run the handler again, on the order's lane
+		Object event = record.value();
+		int attempt = retryTiers.attemptOf(record);
+		EventRouter.EventRoute<?> route = router.routeFor(event);
+		if (route == null){
+			// no retry will find a handler for it
+			if (event != null && !retryTiers.deadLetter(retryTiers.originOf(record), record.key(), event, attempt,
+					new IllegalArgumentException("No handler for " + event.getClass().getName()))){
+				throw new IllegalStateException("Could not dead-letter " + event.getClass().getName());
+			}
+			ack.acknowledge();
+			return;
+		}
+		
+		String orderId = route.orderIdOf(event);
+		if (retryTiers.heldTier(orderId) > tier){
+			// an earlier event of the order moved on, queue behind it
+			if (!retryTiers.followParked(retryTiers.originOf(record), orderId, event)){
+				throw new IllegalStateException("Could not hold back " + event.getClass().getName() + " for order " + orderId);
+			}
+			ack.acknowledge();
+			return;
+		}
+		
+		Exception failure = laneDispatcher.submit(laneDispatcher.laneOf(orderId), () -> {
+			try {
+				eventUtil.processEvent(route.eventType(), orderId, () -> route.handle(event));
+				return null;
+			} catch (Exception ex) {
+				return ex;
+			}
+		}).join();
+		
+		// 3. next tier or DLT; if that send fails too, the error handler retries in place
+		if (failure == null){
+			retryTiers.recovered(record, orderId);
+		} else if (!retryTiers.forwardParked(retryTiers.originOf(record), orderId, event, attempt, failure)){
+			throw failure instanceof RuntimeException runtime ? runtime : new IllegalStateException(failure);
+		}
+		ack.acknowledge();
+	}
+	
+	@Override
+	public void start(){
+		containers.forEach(ConcurrentMessageListenerContainer::start);
+		running = true;
+		log.info("Started {} retry tier consumers", containers.size());
+	}
+	
+	@Override
+	public void stop(){
+		containers.forEach(ConcurrentMessageListenerContainer::stop);
+		running = false;
+	}
+	
+	@Override
+	public boolean isRunning(){
+		return running;
+	}
+}
@@ -1,48 +1,52 @@
 package com.beaconfire.ordermanagement.consumer;
 
-import com.beaconfire.ordermanagement.consumer.util.EventProcessorUtil;
+import com.beaconfire.ordermanagement.consumer.util.BatchEventProcessor;
 import com.beaconfire.ordermanagement.dto.InventoryReservationFailedEvent;
 import com.beaconfire.ordermanagement.dto.InventoryReservedEvent;
 import com.beaconfire.ordermanagement.service.OrderEventHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * @author luluxue
  * @date 2025-12-10
  */
 @Component
+@ConditionalOnProperty(name = "app.kafka.consumer-mode", havingValue = "per-topic", matchIfMissing = true)
 public class InventoryEventConsumer {
-	private final EventProcessorUtil eventUtil;
+	private final BatchEventProcessor batchProcessor;
 	private final OrderEventHandler eventHandler;
 	
 	public InventoryEventConsumer(OrderEventHandler eventHandler,
-	                              EventProcessorUtil eventUtil){
+	                              BatchEventProcessor batchProcessor){
 		this.eventHandler = eventHandler;
-		this.eventUtil = eventUtil;
+		this.batchProcessor = batchProcessor;
 	}
 	
 	@KafkaListener(
 			topics = "${app.kafka.topics.inventory-reserved}",
-			groupId = "inventory-reserved-status"
+			groupId = "inventory-reserved-status",
+			batch = "true"
 	)
-	public void handleInventoryReserved(InventoryReservedEvent event){
-		eventUtil.processEvent(
-				"inventory.reserved-confirmation",
-				event.getOrderId(),
-				() -> eventHandler.handleInventoryReserved(event)
-		);
+	public void handleInventoryReserved(List<InventoryReservedEvent> events){
+		batchProcessor.processBatch("inventory.reserved-confirmation",
+				events,
+				InventoryReservedEvent::getOrderId,
+				eventHandler::handleInventoryReserved);
 	}
 	
 	@KafkaListener(
 			topics = "${app.kafka.topics.inventory-reservation-failed}",
-			groupId = "inventory-reserved-status"
+			groupId = "inventory-reserved-status",
+			batch = "true"
 	)
-	public void handleInventoryReservationFailed(InventoryReservationFailedEvent event){
-		eventUtil.processEvent(
-				"inventory.reserved-confirmation",
-				event.getOrderId(),
-				() -> eventHandler.handleInventoryReservationFailed(event)
-		);
+	public void handleInventoryReservationFailed(List<InventoryReservationFailedEvent> events){
+		batchProcessor.processBatch("inventory.reserved-confirmation",
+				events,
+				InventoryReservationFailedEvent::getOrderId,
+				eventHandler::handleInventoryReservationFailed);
 	}
 }
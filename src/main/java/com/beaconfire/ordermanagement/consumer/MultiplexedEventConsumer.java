@@ -0,0 +1,55 @@
+package com.beaconfire.ordermanagement.consumer;
+
+import com.beaconfire.ordermanagement.consumer.util.BatchEventProcessor;
+import com.beaconfire.ordermanagement.consumer.util.EventRouter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * @author luluxue
+ * @date 2026-02-05
+ */
+/*
+* app.kafka.consumer-mode = multiplexed: one listener container for every inbound
+* payment, inventory and shipment topic, instead of the eight listeners of
+* PaymentEventConsumer, InventoryEventConsumer and ShipmentEventConsumer.
+* a poll can mix event types; EventRouter picks the handler per record and the whole poll
+* goes through BatchEventProcessor as one batch, so the order lanes, the per-lane
+* transaction and the failed-record index work the same as in the per-topic listeners.
+* */
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumer-mode", havingValue = "multiplexed")
+public class MultiplexedEventConsumer {
+	private final BatchEventProcessor batchProcessor;
+	private final EventRouter router;
+	
+	public MultiplexedEventConsumer(BatchEventProcessor batchProcessor, EventRouter router){
+		this.batchProcessor = batchProcessor;
+		this.router = router;
+	}
+	
+	@KafkaListener(
+			topics = {
+					"${app.kafka.topics.payment-confirmed}",
+					"${app.kafka.topics.payment-failed}",
+					"${app.kafka.topics.payment-refund-done}",
+					"${app.kafka.topics.payment-refund-failed}",
+					"${app.kafka.topics.inventory-reserved}",
+					"${app.kafka.topics.inventory-reservation-failed}",
+					"${app.kafka.topics.shipment-shipped}",
+					"${app.kafka.topics.shipment-delivered}"
+			},
+			groupId = "${app.kafka.multiplexed.group-id:order-events}",
+			concurrency = "${app.kafka.multiplexed.concurrency:2}",
+			batch = "true"
+	)
+	public void handleEvents(List<Object> events){
+		batchProcessor.processBatch("order-events",
+				events,
+				router::orderIdOf,
+				router::dispatch);
+	}
+}
@@ -1,64 +1,76 @@
 package com.beaconfire.ordermanagement.consumer;
 
-import com.beaconfire.ordermanagement.consumer.util.EventProcessorUtil;
+import com.beaconfire.ordermanagement.consumer.util.BatchEventProcessor;
 import com.beaconfire.ordermanagement.dto.PaymentConfirmedEvent;
 import com.beaconfire.ordermanagement.dto.PaymentFailedEvent;
 import com.beaconfire.ordermanagement.dto.RefundCompletedEvent;
 import com.beaconfire.ordermanagement.dto.RefundFailedEvent;
 import com.beaconfire.ordermanagement.service.OrderEventHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * @author luluxue
  * @date 2025-12-10
  */
 @Component
+@ConditionalOnProperty(name = "app.kafka.consumer-mode", havingValue = "per-topic", matchIfMissing = true)
 public class PaymentEventConsumer {
 	private final OrderEventHandler eventHandler;
-	private final EventProcessorUtil eventUtil;
+	private final BatchEventProcessor batchProcessor;
 	
 	public PaymentEventConsumer(OrderEventHandler eventHandler,
-	                            EventProcessorUtil eventUtil){
+	                            BatchEventProcessor batchProcessor){
 		this.eventHandler = eventHandler;
-		this.eventUtil = eventUtil;
+		this.batchProcessor = batchProcessor;
 	}
 	
 	@KafkaListener(topics = "${app.kafka.topics.payment-confirmed}",
-			groupId = "order-payment-status")
-	public void handlePaymentConfirmed(PaymentConfirmedEvent event){
-		eventUtil.processEvent("payment-confirmed",
-				event.getOrderId(),
-				() -> eventHandler.handlePaymentConfirmed(event));
+			groupId = "order-payment-status",
+			batch = "true")
+	public void handlePaymentConfirmed(List<PaymentConfirmedEvent> events){
+		batchProcessor.processBatch("payment-confirmed",
+				events,
+				PaymentConfirmedEvent::getOrderId,
+				eventHandler::handlePaymentConfirmed);
 	}
 	
 	@KafkaListener(
 			topics = "${app.kafka.topics.payment-failed}",
-			groupId = "order-payment-status"
+			groupId = "order-payment-status",
+			batch = "true"
 	)
-	public void handlePaymentFailed(PaymentFailedEvent event){
-		eventUtil.processEvent("payment-failed",
-				event.getOrderId(),
-				() -> eventHandler.handlePaymentFailed(event));
+	public void handlePaymentFailed(List<PaymentFailedEvent> events){
+		batchProcessor.processBatch("payment-failed",
+				events,
+				PaymentFailedEvent::getOrderId,
+				eventHandler::handlePaymentFailed);
 	}
 	
 	@KafkaListener(
 			topics = "${app.kafka.topics.payment-refund-done}",
-			groupId = "order-refund-status"
+			groupId = "order-refund-status",
+			batch = "true"
 	)
-	public void handleRefundCompleted(RefundCompletedEvent event){
-		eventUtil.processEvent("refund-completed",
-				event.getOrderId(),
-				() -> eventHandler.handleRefundCompletion(event));
+	public void handleRefundCompleted(List<RefundCompletedEvent> events){
+		batchProcessor.processBatch("refund-completed",
+				events,
+				RefundCompletedEvent::getOrderId,
+				eventHandler::handleRefundCompletion);
 	}
 	
 	@KafkaListener(
 			topics = "${app.kafka.topics.payment-refund-failed}",
-			groupId = "order-refund-status"
+			groupId = "order-refund-status",
+			batch = "true"
 	)
-	public void handleRefundFailed(RefundFailedEvent event){
-		eventUtil.processEvent("refund-failed",
-				event.getOrderId(),
-				() -> eventHandler.handleRefundFailed(event));
+	public void handleRefundFailed(List<RefundFailedEvent> events){
+		batchProcessor.processBatch("refund-failed",
+				events,
+				RefundFailedEvent::getOrderId,
+				eventHandler::handleRefundFailed);
 	}
 }
@@ -0,0 +1,55 @@
+package com.beaconfire.ordermanagement.consumer;
+
+import com.beaconfire.ordermanagement.client.product.ProductCatalogCache;
+import com.beaconfire.ordermanagement.consumer.util.EventProcessorUtil;
+import com.beaconfire.ordermanagement.dto.ProductPriceChangedEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @author luluxue
+ * @date 2026-01-23
+ */
+@Component
+public class ProductEventConsumer {
+	private final ProductCatalogCache productCatalog;
+	private final EventProcessorUtil eventUtil;
+	
+	public ProductEventConsumer(ProductCatalogCache productCatalog, EventProcessorUtil eventUtil){
+		this.productCatalog = productCatalog;
+		this.eventUtil = eventUtil;
+	}
+	
+	/*
+	* every instance has its own cache, so every instance needs its own consumer group.
+	* the group id is stable per instance (app.product-cache.group-id, the host name by default),
+	* a restart rejoins its group instead of leaving another one behind on the broker
+	* */
+	@KafkaListener(
+			topics = "${app.kafka.topics.product-price-changed}",
+			groupId = "${app.product-cache.group-id:order-product-cache-${HOSTNAME:local}}",
+			batch = "true",
+			properties = "auto.offset.reset=latest"
+	)
+	public void handlePriceChanged(List<ProductPriceChangedEvent> events){
+		// a record that could not be read goes to the error handler, the ones before it are applied
+		int undecodable = eventUtil.indexOfUndecodable(events);
+		if (undecodable >= 0){
+			invalidate(events.subList(0, undecodable));
+			throw eventUtil.undecodable("product-price-changed", undecodable);
+		}
+		invalidate(events);
+	}
+	
+	private void invalidate(List<ProductPriceChangedEvent> events){
+		List<String> productIds = events.stream()
+				.map(ProductPriceChangedEvent::getProductId)
+				.filter(Objects::nonNull)
+				.distinct()
+				.toList();
+		productCatalog.invalidate(productIds);
+	}
+}
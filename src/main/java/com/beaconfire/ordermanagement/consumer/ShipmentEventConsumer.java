@@ -1,44 +1,52 @@
 package com.beaconfire.ordermanagement.consumer;
 
-import com.beaconfire.ordermanagement.consumer.util.EventProcessorUtil;
+import com.beaconfire.ordermanagement.consumer.util.BatchEventProcessor;
 import com.beaconfire.ordermanagement.dto.OrderDeliveredEvent;
 import com.beaconfire.ordermanagement.dto.OrderShippedEvent;
 import com.beaconfire.ordermanagement.service.OrderEventHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * @author luluxue
  * @date 2025-12-10
  */
 @Component
+@ConditionalOnProperty(name = "app.kafka.consumer-mode", havingValue = "per-topic", matchIfMissing = true)
 public class ShipmentEventConsumer {
-	private final EventProcessorUtil eventUtil;
+	private final BatchEventProcessor batchProcessor;
 	private final OrderEventHandler eventHandler;
 	
-	public ShipmentEventConsumer(EventProcessorUtil eventUtil,
+	public ShipmentEventConsumer(BatchEventProcessor batchProcessor,
 	                             OrderEventHandler eventHandler){
-		this.eventUtil = eventUtil;
+		this.batchProcessor = batchProcessor;
 		this.eventHandler = eventHandler;
 	}
 	
 	@KafkaListener(
 			topics = "${app.kafka.topics.shipment-shipped}",
-			groupId = "shipment-status"
+			groupId = "shipment-status",
+			batch = "true"
 	)
-	public void handleOrderShipped(OrderShippedEvent event){
-		eventUtil.processEvent("shipment.started",
-				event.getOrderId(),
-				() -> eventHandler.handleOrderShipped(event));
+	public void handleOrderShipped(List<OrderShippedEvent> events){
+		batchProcessor.processBatch("shipment.started",
+				events,
+				OrderShippedEvent::getOrderId,
+				eventHandler::handleOrderShipped);
 	}
 	
 	@KafkaListener(
 			topics = "${app.kafka.topics.shipment-delivered}",
-			groupId = "shipment-status"
+			groupId = "shipment-status",
+			batch = "true"
 	)
-	public void handleOrderDelivered(OrderDeliveredEvent event){
-		eventUtil.processEvent("shipment.delivered",
-				event.getOrderId(),
-				() -> eventHandler.handleOrderDelivered(event));
+	public void handleOrderDelivered(List<OrderDeliveredEvent> events){
+		batchProcessor.processBatch("shipment.delivered",
+				events,
+				OrderDeliveredEvent::getOrderId,
+				eventHandler::handleOrderDelivered);
 	}
 }
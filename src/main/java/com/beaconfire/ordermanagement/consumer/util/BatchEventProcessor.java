@@ -0,0 +1,209 @@
+package com.beaconfire.ordermanagement.consumer.util;
+
+import com.beaconfire.ordermanagement.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * @author luluxue
+ * @date 2026-01-16
+ */
+@Component
+@Slf4j
+public class BatchEventProcessor {
+	// batch runs that may end in a skipped event before the lane falls back to the slow path
+	private static final int MAX_SKIPPING_RUNS = 3;
+	
+	private final EventProcessorUtil eventUtil;
+	private final OrderRepository orderRepo;
+	private final OrderLaneDispatcher laneDispatcher;
+	private final EventRetryTiers retryTiers;
+	private final TransactionTemplate tx;
+	
+	public BatchEventProcessor(EventProcessorUtil eventUtil,
+	                           OrderRepository orderRepo,
+	                           OrderLaneDispatcher laneDispatcher,
+	                           EventRetryTiers retryTiers,
+	                           PlatformTransactionManager transactionManager){
+		this.eventUtil = eventUtil;
+		this.orderRepo = orderRepo;
+		this.laneDispatcher = laneDispatcher;
+		this.retryTiers = retryTiers;
+		this.tx = new TransactionTemplate(transactionManager);
+	}
+	
+	/*
+	* process all events of one poll
+	*
+	* the poll is split by order lane (see OrderLaneDispatcher): events of one order keep
+	* their partition order on one lane, different lanes run in parallel. the listener
+	* thread waits for every lane, so offsets are only committed for processed events.
+	*
+	* held back (per lane): events of an order that has an event parked on the retry tiers
+	* are not handled here but sent after it (see EventRetryTiers), so they cannot overtake it.
+	* if one cannot be sent, the lane stops there and reports it like a failed event.
+	*
+	* fast path (per lane): one transaction for the lane's events. every affected order is
+	* loaded with one IN query, the handlers then find it in the persistence context instead
+	* of running their own findById, and the changed orders are flushed together
+	* (JDBC batching) on commit.
+	* an event the single-record path would skip (EventProcessorUtil.isSkippable, e.g. a stale
+	* status) still rolls the lane transaction back, the handler's own @Transactional marks it
+	* rollback-only. the event is dropped and the batch runs again without it, so a skipped
+	* event costs one more batch transaction instead of the slow path for the whole lane.
+	*
+	* slow path (per lane): if any event fails, the lane transaction is rolled back
+	* (outbox rows included) and its events are replayed one by one through EventProcessorUtil,
+	* each in its own transaction, with the same skip/retry rules as a single-record listener.
+	* an event that still fails is parked on the first retry tier (see EventRetryTiers) and
+	* the lane goes on, so one poison order does not hold up the partition.
+	* only if it cannot be parked (tiers off, send failed), the first such failure is reported
+	* with its index, so the error handler commits the events before it and retries from the
+	* failed one. events after it that other lanes already processed are redelivered,
+	* and the handlers' idempotency checks skip them.
+	*
+	* a record the deserializer could not read ends the poll: the events before it are processed,
+	* then it is reported with its index and the error handler sends it to the dead-letter topic.
+	*
+	* @param eventType: used for logging
+	* @param events: events of one poll, in partition order
+	* @param orderIdOf: order id of an event
+	* @param handler: business logic for one event
+	* */
+	public <T> void processBatch(String eventType, List<T> events,
+	                             Function<T, String> orderIdOf, Consumer<T> handler){
+		if (events.isEmpty()){
+			return;
+		}
+		
+		int undecodable = eventUtil.indexOfUndecodable(events);
+		if (undecodable >= 0){
+			processBatch(eventType, events.subList(0, undecodable), orderIdOf, handler);
+			throw eventUtil.undecodable(eventType, undecodable);
+		}
+		
+		// 1. split the poll by lane
+		Map<Integer, List<Integer>> indexesByLane = new LinkedHashMap<>();
+		for (int i = 0; i < events.size(); i++){
+			int lane = laneDispatcher.laneOf(orderIdOf.apply(events.get(i)));
+			indexesByLane.computeIfAbsent(lane, key -> new ArrayList<>()).add(i);
+		}
+		
+		// 2. run the lanes
+		List<CompletableFuture<RecordFailure>> laneResults = new ArrayList<>(indexesByLane.size());
+		indexesByLane.forEach((lane, indexes) -> laneResults.add(laneDispatcher.submit(lane,
+				() -> processLane(eventType, events, indexes, orderIdOf, handler))));
+		
+		// 3. report the earliest retryable failure
+		RecordFailure firstFailure = null;
+		for (CompletableFuture<RecordFailure> laneResult: laneResults){
+			RecordFailure failure = laneResult.join();
+			if (failure != null && (firstFailure == null || failure.index() < firstFailure.index())){
+				firstFailure = failure;
+			}
+		}
+		
+		if (firstFailure != null){
+			throw new BatchListenerFailedException(eventType + " failed for order " + firstFailure.orderId(),
+					firstFailure.cause(), firstFailure.index());
+		}
+	}
+	
+	private <T> RecordFailure processLane(String eventType, List<T> events, List<Integer> indexes,
+	                                      Function<T, String> orderIdOf, Consumer<T> handler){
+		// 1. hold back events of orders with parked events, up to the first one that cannot be sent
+		List<Integer> batch = new ArrayList<>(indexes.size());
+		RecordFailure heldUp = null;
+		for (int i: indexes){
+			T event = events.get(i);
+			String orderId = orderIdOf.apply(event);
+			if (retryTiers.heldTier(orderId) < 0){
+				batch.add(i);
+			} else if (!retryTiers.follow(eventType, orderId, event)){
+				heldUp = new RecordFailure(i, orderId, new IllegalStateException("Could not hold back " + eventType));
+				break;
+			}
+		}
+		if (batch.isEmpty()){
+			return heldUp;
+		}
+		
+		// 2. fast path, skipped events are left out and the batch runs again
+		for (int run = 0; run < MAX_SKIPPING_RUNS && !batch.isEmpty(); run++){
+			try {
+				tx.executeWithoutResult(status -> {
+					Set<String> orderIds = batch.stream()
+							.map(i -> orderIdOf.apply(events.get(i)))
+							.filter(Objects::nonNull)
+							.collect(Collectors.toCollection(LinkedHashSet::new));
+					orderRepo.findAllById(orderIds);
+					
+					for (int i: batch){
+						try {
+							handler.accept(events.get(i));
+						} catch (RuntimeException ex) {
+							throw eventUtil.isSkippable(ex) ? new SkippedEvent(i, ex) : ex;
+						}
+					}
+				});
+				log.info("Processed {} {} events in one batch", batch.size(), eventType);
+				return heldUp;
+			} catch (SkippedEvent skipped) {
+				log.warn("{} - event for order {} skipped: {}, running the other {} events again",
+						eventType, orderIdOf.apply(events.get(skipped.index)), skipped.getCause().getMessage(),
+						batch.size() - 1);
+				batch.remove(Integer.valueOf(skipped.index));
+			} catch (Exception ex) {
+				log.warn("{} - batch of {} events failed ({}), replaying them one by one",
+						eventType, batch.size(), ex.getMessage());
+				break;
+			}
+		}
+		if (batch.isEmpty()){
+			return heldUp;
+		}
+		
+		// 3. slow path, park failed events on the retry tiers (later events of their order follow them),
+		// stop at the first one that cannot be parked to keep the order of this lane
+		for (int i: batch){
+			T event = events.get(i);
+			String orderId = orderIdOf.apply(event);
+			if (retryTiers.heldTier(orderId) >= 0){
+				if (!retryTiers.follow(eventType, orderId, event)){
+					return new RecordFailure(i, orderId, new IllegalStateException("Could not hold back " + eventType));
+				}
+				continue;
+			}
+			try {
+				eventUtil.processEvent(eventType, orderId, () -> handler.accept(event));
+			} catch (Exception ex) {
+				if (!retryTiers.forward(eventType, orderId, event, 0, ex)){
+					return new RecordFailure(i, orderId, ex);
+				}
+			}
+		}
+		return heldUp;
+	}
+	
+	// index of the failed event in the poll
+	private record RecordFailure(int index, String orderId, Exception cause) {}
+	
+	// rolls the batch transaction back, index of the skipped event in the poll
+	private static class SkippedEvent extends RuntimeException {
+		private final int index;
+		
+		SkippedEvent(int index, RuntimeException cause){
+			super(cause);
+			this.index = index;
+		}
+	}
+}
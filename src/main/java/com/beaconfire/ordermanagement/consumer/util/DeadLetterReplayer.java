@@ -0,0 +1,118 @@
+package com.beaconfire.ordermanagement.consumer.util;
+
+import com.beaconfire.ordermanagement.configuration.EventRetryProperties;
+import com.beaconfire.ordermanagement.dto.DeadLetterReplayDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-06
+ */
+/*
+* moves records from the dead-letter topic back to the first retry tier, once the cause
+* (a bug, a missing order, a downstream outage) is fixed
+* the replay group's committed offsets mark how far the DLT has been replayed, so every
+* record is replayed once; records after the limit stay for the next call.
+* */
+@Component
+@Slf4j
+public class DeadLetterReplayer {
+	private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+	
+	private final ConsumerFactory<?, ?> consumerFactory;
+	private final EventRetryProperties properties;
+	private final EventRetryTiers retryTiers;
+	
+	public DeadLetterReplayer(ConsumerFactory<?, ?> consumerFactory,
+	                          EventRetryProperties properties,
+	                          EventRetryTiers retryTiers){
+		this.consumerFactory = consumerFactory;
+		this.properties = properties;
+		this.retryTiers = retryTiers;
+	}
+	
+	// one replay at a time, they share the replay group's offsets
+	public synchronized DeadLetterReplayDTO replay(int maxRecords){
+		if (!properties.isEnabled()){
+			throw new IllegalStateException("Retry tiers are disabled (app.kafka.retry.enabled)");
+		}
+		
+		String topic = properties.getDeadLetterTopic();
+		Map<TopicPartition, OffsetAndMetadata> replayedUpTo = new HashMap<>();
+		Map<String, Integer> replayedByEventType = new TreeMap<>();
+		int replayed = 0;
+		
+		try (Consumer<?, ?> consumer = consumerFactory.createConsumer(properties.getReplayGroupId(), "-dlt-replay")){
+			// 1. start where the last replay stopped
+			List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic);
+			if (partitionInfos == null || partitionInfos.isEmpty()){
+				return new DeadLetterReplayDTO(0, replayedByEventType, 0);
+			}
+			List<TopicPartition> partitions = partitionInfos.stream()
+					.map(info -> new TopicPartition(topic, info.partition()))
+					.toList();
+			consumer.assign(partitions);
+			Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+			for (TopicPartition partition: partitions){
+				OffsetAndMetadata offset = committed.get(partition);
+				if (offset != null){
+					consumer.seek(partition, offset.offset());
+				} else {
+					consumer.seekToBeginning(List.of(partition));
+				}
+			}
+			
+			// 2. send records back to tier 0 until the limit or the end of the topic
+			poll:
+			while (replayed < maxRecords){
+				ConsumerRecords<?, ?> records = consumer.poll(POLL_TIMEOUT);
+				if (records.isEmpty()){
+					break;
+				}
+				for (ConsumerRecord<?, ?> record: records){
+					if (replayed >= maxRecords){
+						break poll;
+					}
+					try {
+						retryTiers.replay(record);
+					} catch (Exception ex) {
+						log.error("Replay stopped at {}-{}@{}", record.topic(), record.partition(), record.offset(), ex);
+						break poll;
+					}
+					replayedUpTo.put(new TopicPartition(record.topic(), record.partition()),
+							new OffsetAndMetadata(record.offset() + 1));
+					replayedByEventType.merge(record.value() == null ? "null" : record.value().getClass().getSimpleName(),
+							1, Integer::sum);
+					replayed++;
+				}
+			}
+			
+			// 3. remember how far we got
+			if (!replayedUpTo.isEmpty()){
+				consumer.commitSync(replayedUpTo);
+			}
+			
+			long remaining = 0;
+			Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+			for (TopicPartition partition: partitions){
+				OffsetAndMetadata done = replayedUpTo.getOrDefault(partition, committed.get(partition));
+				long start = done != null ? done.offset() : consumer.beginningOffsets(List.of(partition)).get(partition);
+				remaining += Math.max(0, endOffsets.get(partition) - start);
+			}
+			
+			log.info("Replayed {} dead-lettered events {}, {} left", replayed, replayedByEventType, remaining);
+			return new DeadLetterReplayDTO(replayed, replayedByEventType, remaining);
+		}
+	}
+}
@@ -3,8 +3,13 @@ package com.beaconfire.ordermanagement.consumer.util;
 import com.beaconfire.ordermanagement.exception.OrderNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.KafkaNull;
+import org.springframework.kafka.support.serializer.DeserializationException;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * @author luluxue
  * @date 2025-12-10
@@ -42,4 +47,34 @@ public class EventProcessorUtil {
 			throw ex;
 		}
 	}
+	
+	// the exceptions processEvent skips: the event can never apply, a retry would fail the same way
+	public boolean isSkippable(Exception ex){
+		return ex instanceof OrderNotFoundException || ex instanceof IllegalStateException;
+	}
+	
+	/*
+	* index of the first record of a poll without a value, -1 if there is none.
+	* a record the deserializer could not read has no value (see ErrorHandlingDeserializer),
+	* a batch listener gets it as KafkaNull
+	* */
+	public int indexOfUndecodable(List<?> events){
+		for (int i = 0; i < events.size(); i++){
+			Object event = events.get(i);
+			if (event == null || event instanceof KafkaNull){
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/*
+	* fails the poll at that record: the error handler commits the records before it and,
+	* since a deserialization failure is not retried, dead-letters it right away
+	* (KafkaSerializationConfig), a tombstone is only logged
+	* */
+	public BatchListenerFailedException undecodable(String eventType, int index){
+		return new BatchListenerFailedException(eventType + " record without a readable value",
+				new DeserializationException("Record value could not be deserialized", null, false, null), index);
+	}
 }
@@ -0,0 +1,336 @@
+package com.beaconfire.ordermanagement.consumer.util;
+
+import com.beaconfire.ordermanagement.configuration.EventRetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-02-06
+ */
+/*
+* parks events that keep failing on the retry tier topics instead of blocking their partition
+*
+* attempt n (the n-th failed run) goes to tier n-1, due after that tier's delay;
+* after the last tier the event goes to the dead-letter topic. the headers carry the
+* attempt count, the due time, where the event first failed and the last exception.
+*
+* per-order ordering: while an order has an event parked, its later events must not overtake
+* it (the handlers check the order status and would skip or reject them). they are held back:
+* sent after it, onto the tier its earliest parked event is on (or the DLT), where they queue
+* behind it on the order's partition. an order is released once each of its parked events is
+* handled. the bookkeeping is in memory, per instance, so it holds while this instance consumes
+* both the source and the tier partitions of the order; an entry expires holdTime() after its
+* last parked event is due, so an order whose retries are handled elsewhere is not held forever.
+*
+* metrics, tagged with the event class:
+* - order.events.retries{event_type, tier}: events parked on a tier
+* - order.events.dead_lettered{event_type}: events that used up every tier
+* - order.events.held_back{event_type, tier}: events sent after a parked event of their order
+* - order.events.retry.depth{event_type, outcome}: failed runs before an event
+*   recovered on a tier or was dead-lettered
+* */
+@Component
+@Slf4j
+public class EventRetryTiers {
+	private static final String HEADER_PREFIX = "x-event-";
+	static final String ATTEMPT_HEADER = "x-event-attempt";
+	static final String DUE_AT_HEADER = "x-event-due-at";
+	static final String ORIGIN_HEADER = "x-event-origin";
+	static final String EXCEPTION_HEADER = "x-event-exception";
+	static final String HELD_BACK_HEADER = "x-event-held-back";
+	
+	private static final int MAX_EXCEPTION_LENGTH = 500;
+	private static final LogAccessor LOG = new LogAccessor(EventRetryTiers.class);
+	
+	private final EventRetryProperties properties;
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final MeterRegistry meterRegistry;
+	// order id -> where its parked events are
+	private final Map<String, ParkedOrder> parkedOrders = new ConcurrentHashMap<>();
+	
+	public EventRetryTiers(EventRetryProperties properties,
+	                       KafkaTemplate<String, Object> kafkaTemplate,
+	                       MeterRegistry meterRegistry){
+		this.properties = properties;
+		this.kafkaTemplate = kafkaTemplate;
+		this.meterRegistry = meterRegistry;
+	}
+	
+	public boolean isEnabled(){
+		return properties.isEnabled();
+	}
+	
+	/*
+	* send an event that failed on the source topic to the first tier and wait for the ack
+	*
+	* @param origin: where the event first failed, e.g. the listener's event type
+	* @param orderId: record key, keeps the retries of one order on one partition
+	* @param attempt: failed runs before this one (0 for the first failure on the source topic)
+	* @return false if the tiers are off or the send failed, the caller then fails the
+	*         record as before and the container's error handler retries it in place
+	* */
+	public boolean forward(String origin, String orderId, Object event, int attempt, Exception cause){
+		return park(origin, orderId, event, attempt, attempt, cause, true, null);
+	}
+	
+	// a parked event failed again on its tier: next tier, or the DLT after the last one
+	public boolean forwardParked(String origin, String orderId, Object event, int attempt, Exception cause){
+		return park(origin, orderId, event, attempt, attempt, cause, false, null);
+	}
+	
+	// straight to the DLT, for events no retry can fix (e.g. no handler for the type)
+	public boolean deadLetter(String origin, String orderId, Object event, int attempt, Exception cause){
+		return park(origin, orderId, event, attempt, properties.getTiers(), cause, false, null);
+	}
+	
+	/*
+	* straight to the DLT with the bytes the deserializer could not read, and the record's own
+	* headers (e.g. the JSON type id), so a replay after the fix reads it like the original
+	* */
+	public boolean deadLetterUndecodable(ConsumerRecord<?, ?> record, DeserializationException cause){
+		if (cause.getData() == null){
+			return false;
+		}
+		Headers carried = new RecordHeaders();
+		for (Header header: record.headers()){
+			if (!header.key().startsWith(SerializationUtils.DESERIALIZER_EXCEPTION_HEADER_PREFIX)
+					&& !header.key().startsWith(HEADER_PREFIX)){
+				carried.add(header);
+			}
+		}
+		return park(originOf(record), (String) record.key(), cause.getData(), attemptOf(record),
+				properties.getTiers(), cause, false, carried);
+	}
+	
+	/*
+	* tier the earliest parked event of the order is on, getTiers() for the DLT,
+	* -1 if the order has no parked event and its events can be handled right away
+	* */
+	public int heldTier(String orderId){
+		if (orderId == null){
+			return -1;
+		}
+		ParkedOrder parked = parkedOrders.get(orderId);
+		if (parked == null){
+			return -1;
+		}
+		if (parked.isExpired(System.currentTimeMillis())){
+			parkedOrders.remove(orderId, parked);
+			return -1;
+		}
+		return parked.tier();
+	}
+	
+	// an event from the source topic of a held order, queue it behind the parked ones
+	public boolean follow(String origin, String orderId, Object event){
+		int tier = heldTier(orderId);
+		return tier >= 0 && park(origin, orderId, event, tier, tier, null, true, null);
+	}
+	
+	// a parked event whose order's earliest parked event moved on to a later tier, queue it there
+	public boolean followParked(String origin, String orderId, Object event){
+		int tier = heldTier(orderId);
+		return tier >= 0 && park(origin, orderId, event, tier, tier, null, false, null);
+	}
+	
+	// how long an order is held at most after its last parked event is due: the delay of every tier
+	public long holdTime(){
+		long holdMs = 0;
+		for (int tier = 0; tier < properties.getTiers(); tier++){
+			holdMs += properties.delayOf(tier).toMillis();
+		}
+		return holdMs;
+	}
+	
+	/*
+	* @param attempt: runs counted toward the tier limit, the record goes out with attempt + 1
+	* @param tier: target tier, getTiers() or more for the DLT
+	* @param cause: null if the event did not fail but is held back behind its order's parked event
+	* @param joinsOrder: the event was not parked before and adds to its order's parked events
+	* @param carried: headers of the original record to send along, may be null
+	* */
+	private boolean park(String origin, String orderId, Object event, int attempt, int tier,
+	                     Exception cause, boolean joinsOrder, Headers carried){
+		if (!properties.isEnabled() || event == null){
+			return false;
+		}
+		
+		int failedRuns = attempt + 1;
+		boolean deadLetter = tier >= properties.getTiers();
+		String eventType = event instanceof byte[] ? "undecodable" : event.getClass().getSimpleName();
+		long now = System.currentTimeMillis();
+		String topic;
+		long dueAt;
+		if (deadLetter){
+			topic = properties.getDeadLetterTopic();
+			dueAt = 0;
+		} else {
+			topic = properties.tierTopic(tier);
+			dueAt = now + properties.delayOf(tier).toMillis();
+		}
+		
+		ProducerRecord<String, Object> record = new ProducerRecord<>(topic, null, orderId, event, carried);
+		addHeader(record.headers(), ATTEMPT_HEADER, String.valueOf(failedRuns));
+		addHeader(record.headers(), DUE_AT_HEADER, String.valueOf(dueAt));
+		addHeader(record.headers(), ORIGIN_HEADER, origin);
+		if (cause != null){
+			addHeader(record.headers(), EXCEPTION_HEADER, describe(cause));
+		} else {
+			addHeader(record.headers(), HELD_BACK_HEADER, "true");
+		}
+		
+		try {
+			kafkaTemplate.send(record).get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (Exception ex) {
+			log.error("Could not park {} for order {} on {}, retrying in place", eventType, orderId, topic, ex);
+			return false;
+		}
+		hold(orderId, deadLetter ? properties.getTiers() : tier, joinsOrder, Math.max(dueAt, now) + holdTime());
+		
+		if (cause == null){
+			log.info("{} for order {} held back behind its parked events on {}", eventType, orderId, topic);
+			Counter.builder("order.events.held_back")
+					.description("Inbound events sent after a parked event of their order")
+					.tag("event_type", eventType)
+					.tag("tier", deadLetter ? "dlt" : String.valueOf(tier))
+					.register(meterRegistry)
+					.increment();
+		} else if (deadLetter){
+			log.error("{} for order {} failed {} times, sent to {}: {}",
+					eventType, orderId, failedRuns, topic, describe(cause));
+			Counter.builder("order.events.dead_lettered")
+					.description("Inbound events that failed on every retry tier")
+					.tag("event_type", eventType)
+					.register(meterRegistry)
+					.increment();
+			depth(eventType, "dead_lettered").record(failedRuns);
+		} else {
+			log.warn("{} for order {} failed (attempt {}), retrying on {} in {}",
+					eventType, orderId, failedRuns, topic, properties.delayOf(tier));
+			Counter.builder("order.events.retries")
+					.description("Inbound events parked on a retry tier")
+					.tag("event_type", eventType)
+					.tag("tier", String.valueOf(tier))
+					.register(meterRegistry)
+					.increment();
+		}
+		return true;
+	}
+	
+	private void hold(String orderId, int tier, boolean joinsOrder, long expiresAt){
+		if (orderId == null){
+			return;
+		}
+		long now = System.currentTimeMillis();
+		parkedOrders.values().removeIf(parked -> parked.isExpired(now));
+		parkedOrders.compute(orderId, (key, parked) -> parked == null || parked.isExpired(now)
+				? new ParkedOrder(tier, 1, expiresAt)
+				: new ParkedOrder(Math.max(parked.tier(), tier), parked.parkedEvents() + (joinsOrder ? 1 : 0),
+						Math.max(parked.expiresAt(), expiresAt)));
+	}
+	
+	/*
+	* a parked event was handled on its tier: record how many failed runs it took, and release
+	* its order once none of its events is parked anymore
+	* */
+	public void recovered(ConsumerRecord<?, ?> record, String orderId){
+		if (record.value() != null && record.headers().lastHeader(HELD_BACK_HEADER) == null){
+			depth(record.value().getClass().getSimpleName(), "recovered").record(attemptOf(record));
+		}
+		if (orderId != null){
+			parkedOrders.computeIfPresent(orderId, (key, parked) -> parked.parkedEvents() <= 1
+					? null
+					: new ParkedOrder(parked.tier(), parked.parkedEvents() - 1, parked.expiresAt()));
+		}
+	}
+	
+	/*
+	* a DLT record goes back to the first tier, due now, with a fresh attempt count;
+	* its order is held on the first tier from now on
+	* */
+	public void replay(ConsumerRecord<?, ?> deadLetter) throws Exception {
+		// still not readable (see deadLetterUndecodable), stop here instead of replaying an empty record
+		DeserializationException undecodable = SerializationUtils.getExceptionFromHeader(deadLetter,
+				SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG);
+		if (undecodable != null){
+			throw undecodable;
+		}
+		String orderId = (String) deadLetter.key();
+		ProducerRecord<String, Object> record = new ProducerRecord<>(properties.tierTopic(0),
+				orderId, deadLetter.value());
+		addHeader(record.headers(), ATTEMPT_HEADER, "0");
+		addHeader(record.headers(), DUE_AT_HEADER, "0");
+		addHeader(record.headers(), ORIGIN_HEADER, headerOf(deadLetter, ORIGIN_HEADER, "replay"));
+		kafkaTemplate.send(record).get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		
+		if (orderId != null){
+			long now = System.currentTimeMillis();
+			// dead-lettered events were counted when they were parked, replays of anything else add one
+			parkedOrders.compute(orderId, (key, parked) -> parked == null || parked.isExpired(now)
+					? new ParkedOrder(0, 1, now + holdTime())
+					: new ParkedOrder(0, parked.parkedEvents() + (parked.tier() >= properties.getTiers() ? 0 : 1),
+							now + holdTime()));
+		}
+	}
+	
+	public int attemptOf(ConsumerRecord<?, ?> record){
+		return Integer.parseInt(headerOf(record, ATTEMPT_HEADER, "0"));
+	}
+	
+	public long dueAtOf(ConsumerRecord<?, ?> record){
+		return Long.parseLong(headerOf(record, DUE_AT_HEADER, "0"));
+	}
+	
+	public String originOf(ConsumerRecord<?, ?> record){
+		return headerOf(record, ORIGIN_HEADER, record.topic());
+	}
+	
+	private DistributionSummary depth(String eventType, String outcome){
+		return DistributionSummary.builder("order.events.retry.depth")
+				.description("Failed runs of an inbound event before it recovered or was dead-lettered")
+				.tag("event_type", eventType)
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+	
+	private static String headerOf(ConsumerRecord<?, ?> record, String name, String defaultValue){
+		Header header = record.headers().lastHeader(name);
+		return header == null ? defaultValue : new String(header.value(), StandardCharsets.UTF_8);
+	}
+	
+	private static void addHeader(Headers headers, String name, String value){
+		headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private record ParkedOrder(int tier, int parkedEvents, long expiresAt) {
+		boolean isExpired(long now){
+			return expiresAt < now;
+		}
+	}
+	
+	private static String describe(Exception cause){
+		String description = cause.getClass().getName() + ": " + cause.getMessage();
+		return description.length() > MAX_EXCEPTION_LENGTH ? description.substring(0, MAX_EXCEPTION_LENGTH) : description;
+	}
+}
@@ -0,0 +1,93 @@
+package com.beaconfire.ordermanagement.consumer.util;
+
+import com.beaconfire.ordermanagement.dto.*;
+import com.beaconfire.ordermanagement.service.OrderEventHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * @author luluxue
+ * @date 2026-02-05
+ */
+/*
+* routing table: inbound event class -> OrderEventHandler method
+* the record value is already the event DTO (the JSON type header or the compact
+* schema id says which), so the class alone picks the handler, whatever the topic.
+* */
+@Component
+@Slf4j
+public class EventRouter {
+	private final Map<Class<?>, EventRoute<?>> routes = new LinkedHashMap<>();
+	private final Counter unroutedCounter;
+	
+	public EventRouter(OrderEventHandler eventHandler, MeterRegistry meterRegistry){
+		route(PaymentConfirmedEvent.class, "payment-confirmed",
+				PaymentConfirmedEvent::getOrderId, eventHandler::handlePaymentConfirmed);
+		route(PaymentFailedEvent.class, "payment-failed",
+				PaymentFailedEvent::getOrderId, eventHandler::handlePaymentFailed);
+		route(RefundCompletedEvent.class, "refund-completed",
+				RefundCompletedEvent::getOrderId, eventHandler::handleRefundCompletion);
+		route(RefundFailedEvent.class, "refund-failed",
+				RefundFailedEvent::getOrderId, eventHandler::handleRefundFailed);
+		route(InventoryReservedEvent.class, "inventory-reserved",
+				InventoryReservedEvent::getOrderId, eventHandler::handleInventoryReserved);
+		route(InventoryReservationFailedEvent.class, "inventory-reservation-failed",
+				InventoryReservationFailedEvent::getOrderId, eventHandler::handleInventoryReservationFailed);
+		route(OrderShippedEvent.class, "order-shipped",
+				OrderShippedEvent::getOrderId, eventHandler::handleOrderShipped);
+		route(OrderDeliveredEvent.class, "order-delivered",
+				OrderDeliveredEvent::getOrderId, eventHandler::handleOrderDelivered);
+		
+		this.unroutedCounter = Counter.builder("order.events.unrouted")
+				.description("Inbound events of a type without a handler, skipped")
+				.register(meterRegistry);
+	}
+	
+	private <T> void route(Class<T> type, String eventType, Function<T, String> orderIdOf, Consumer<T> handler){
+		routes.put(type, new EventRoute<>(type, eventType, orderIdOf, handler));
+	}
+	
+	// null for an event without a route
+	public EventRoute<?> routeFor(Object event){
+		return event == null ? null : routes.get(event.getClass());
+	}
+	
+	public Collection<EventRoute<?>> routes(){
+		return routes.values();
+	}
+	
+	public String orderIdOf(Object event){
+		EventRoute<?> route = routeFor(event);
+		return route == null ? null : route.orderIdOf(event);
+	}
+	
+	public void dispatch(Object event){
+		EventRoute<?> route = routeFor(event);
+		if (route == null){
+			// not ours (or a tombstone): skip it instead of blocking the partition
+			unroutedCounter.increment();
+			log.warn("No handler for {}, event skipped", event == null ? "null record" : event.getClass().getName());
+			return;
+		}
+		route.handle(event);
+	}
+	
+	public record EventRoute<T>(Class<T> type, String eventType,
+	                            Function<T, String> orderIdOf, Consumer<T> handler) {
+		public String orderIdOf(Object event){
+			return orderIdOf.apply(type.cast(event));
+		}
+		
+		public void handle(Object event){
+			handler.accept(type.cast(event));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.beaconfire.ordermanagement.consumer.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author luluxue
+ * @date 2026-01-19
+ */
+/*
+* in-process dispatcher for order status transitions
+* payment, inventory and shipment events of one order come from different topics and
+* consumer groups. hashing the order id onto a fixed single-threaded lane runs all
+* transitions of one order one after another (no optimistic-lock races between them),
+* while different orders still run in parallel on the other lanes.
+* */
+@Component
+@Slf4j
+public class OrderLaneDispatcher implements DisposableBean {
+	private final ThreadPoolExecutor[] lanes;
+	private final Timer waitTimer;
+	
+	public OrderLaneDispatcher(@Value("${app.kafka.order-lanes.count:8}") int laneCount,
+	                           MeterRegistry meterRegistry){
+		this.lanes = new ThreadPoolExecutor[laneCount];
+		for (int i = 0; i < laneCount; i++){
+			ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1,
+					0L, TimeUnit.MILLISECONDS,
+					new LinkedBlockingQueue<>(),
+					new CustomizableThreadFactory("order-lane-" + i + "-"));
+			lanes[i] = lane;
+			
+			Gauge.builder("order.lanes.queue.depth", lane, executor -> executor.getQueue().size())
+					.description("Tasks waiting on an order lane")
+					.tag("lane", String.valueOf(i))
+					.register(meterRegistry);
+		}
+		
+		this.waitTimer = Timer.builder("order.lanes.wait")
+				.description("Time a task waits on its lane before it starts")
+				.register(meterRegistry);
+	}
+	
+	// the same order id always maps to the same lane
+	public int laneOf(String orderId){
+		return orderId == null ? 0 : Math.floorMod(orderId.hashCode(), lanes.length);
+	}
+	
+	public <T> CompletableFuture<T> submit(int lane, Supplier<T> task){
+		long enqueuedAt = System.nanoTime();
+		return CompletableFuture.supplyAsync(() -> {
+			waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+			return task.get();
+		}, lanes[lane]);
+	}
+	
+	@Override
+	public void destroy(){
+		for (ThreadPoolExecutor lane: lanes){
+			lane.shutdown();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.beaconfire.ordermanagement.controller;
+
+import com.beaconfire.ordermanagement.consumer.util.DeadLetterReplayer;
+import com.beaconfire.ordermanagement.dto.DeadLetterReplayDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-06
+ */
+@RestController
+@RequestMapping("/api/v1/admin/dead-letters")
+public class DeadLetterController {
+	private static final int MAX_REPLAY = 10_000;
+	private final DeadLetterReplayer replayer;
+	
+	public DeadLetterController(DeadLetterReplayer replayer){
+		this.replayer = replayer;
+	}
+	
+	// send up to max dead-lettered events back through the retry tiers
+	// POST /api/v1/admin/dead-letters/replay?max=100
+	@PostMapping("/replay")
+	public ResponseEntity<DeadLetterReplayDTO> replay(@RequestParam(defaultValue = "100") int max){
+		DeadLetterReplayDTO result = replayer.replay(Math.max(1, Math.min(max, MAX_REPLAY)));
+		return ResponseEntity.ok(result);
+	}
+}
@@ -5,12 +5,14 @@ import com.beaconfire.ordermanagement.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.concurrent.CompletableFuture;
 
 
@@ -22,6 +24,7 @@ import java.util.concurrent.CompletableFuture;
 @RestController
 @RequestMapping("/api/v1/orders")
 public class OrderController {
+	private static final int MAX_PAGE_SIZE = 100;
 	private final OrderService orderService;
 	
 	public OrderController(OrderService orderService){
@@ -45,6 +48,31 @@ public class OrderController {
 		return new ResponseEntity<>(newOrder, HttpStatus.CREATED);
 	}
 	
+	// 1.1 place an order asynchronously
+	// POST /api/v1/orders/async
+	// returns 202 right after the order is stored, poll the Location until it leaves PROCESSING
+	@PostMapping("/async")
+	public ResponseEntity<OrderPlacementStatusDTO> acceptOrder(
+			@Valid @RequestBody OrderRequestDTO orderRequestDto,
+			@RequestHeader("Idempotency-Key") String idempotencyKey,
+			@RequestHeader("X-Payment-Token") String paymentToken
+			){
+		orderRequestDto.setIdempotencyKey(idempotencyKey);
+		orderRequestDto.setPaymentMethodToken(paymentToken);
+		OrderPlacementStatusDTO placement = orderService.acceptOrder(orderRequestDto);
+		
+		// return 202 ACCEPTED
+		return ResponseEntity.accepted()
+				.location(URI.create(placement.getStatusUrl()))
+				.body(placement);
+	}
+	
+	// 1.2 poll the placement status, a single-row lookup
+	@GetMapping("/{id}/status")
+	public ResponseEntity<OrderPlacementStatusDTO> getPlacementStatus(@PathVariable String id){
+		return ResponseEntity.ok(orderService.getPlacementStatus(id));
+	}
+	
 	// 2. get order details
 	@GetMapping("/{id}")
 	public CompletableFuture<ResponseEntity<OrderDetailsDTO>> getOrderDetails(@PathVariable String id){
@@ -69,8 +97,24 @@ public class OrderController {
 		return ResponseEntity.ok(ordersPage);
 	}
 	
+	// 3.1 get all orders with keyset pagination
+	// no count query and no OFFSET, so the cost stays flat however deep the client pages
+	// the first call has no cursor, then pass the nextCursor of the previous slice
+	@GetMapping("/cursor")
+	public ResponseEntity<SliceResponseDTO<OrderResponseDTO>> getAllOrdersByCursor(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size){
+		// same upper bound as the pageable endpoint
+		int sliceSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+		OrderCursor position = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+		Slice<OrderResponseDTO> ordersSlice = orderService.getAllAfter(position, sliceSize);
+		
+		return ResponseEntity.ok(SliceResponseDTO.of(ordersSlice,
+				order -> new OrderCursor(order.getCreatedAt(), order.getOrderId())));
+	}
+	
 	// 4. cancel an order
-	@PostMapping("/{id}")
+	@PostMapping("/{id}/cancel")
 	public ResponseEntity<OrderResponseDTO> cancelOrder(@PathVariable String id,
 	                                                    @RequestBody CancelOrderRequestDTO requestDto){
 		OrderResponseDTO orderRequestDTO = orderService.cancelOrder(id, requestDto);
@@ -80,7 +124,7 @@ public class OrderController {
 	
 	// 5. return an order
 	// ** or return some items from an order
-	@PostMapping("/{id}")
+	@PostMapping("/{id}/return")
 	public ResponseEntity<OrderResponseDTO> returnOrder(@PathVariable String id,
 	                                                    @RequestBody ReturnOrderRequestDTO requestDto){
 		OrderResponseDTO orderRequestDTO = orderService.returnOrder(id, requestDto);
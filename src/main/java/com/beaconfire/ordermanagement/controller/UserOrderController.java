@@ -0,0 +1,39 @@
+package com.beaconfire.ordermanagement.controller;
+
+import com.beaconfire.ordermanagement.dto.OrderCursor;
+import com.beaconfire.ordermanagement.dto.OrderSummaryDTO;
+import com.beaconfire.ordermanagement.dto.SliceResponseDTO;
+import com.beaconfire.ordermanagement.service.OrderService;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @author luluxue
+ * @date 2026-01-12
+ */
+@RestController
+@RequestMapping("/api/v1/users/{userId}/orders")
+public class UserOrderController {
+	private static final int MAX_PAGE_SIZE = 100;
+	private final OrderService orderService;
+	
+	public UserOrderController(OrderService orderService){
+		this.orderService = orderService;
+	}
+	
+	// 1. order history of one customer, newest first
+	// the first call has no cursor, then pass the nextCursor of the previous slice
+	@GetMapping
+	public ResponseEntity<SliceResponseDTO<OrderSummaryDTO>> getUserOrders(
+			@PathVariable String userId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size){
+		int sliceSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+		OrderCursor position = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+		Slice<OrderSummaryDTO> history = orderService.getUserOrderHistory(userId, position, sliceSize);
+		
+		return ResponseEntity.ok(SliceResponseDTO.of(history,
+				summary -> new OrderCursor(summary.getCreatedAt(), summary.getOrderId())));
+	}
+}
@@ -0,0 +1,25 @@
+package com.beaconfire.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * @author luluxue
+ * @date 2026-02-06
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetterReplayDTO {
+	// records sent back to the first retry tier in this call
+	private int replayed;
+	// replayed records per event class
+	private Map<String, Integer> replayedByEventType;
+	// records still on the dead-letter topic after this call
+	private long remaining;
+}
@@ -0,0 +1,48 @@
+package com.beaconfire.ordermanagement.dto;
+
+import com.beaconfire.ordermanagement.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * @author luluxue
+ * @date 2026-01-09
+ */
+@Data
+@AllArgsConstructor
+public class OrderCursor {
+	// position of the last order returned: (createdAt, id) is the seek key
+	private static final String SEPARATOR = "|";
+	
+	private LocalDateTime createdAt;
+	private String orderId;
+	
+	// opaque for clients: base64url("createdAt|orderId")
+	public String encode(){
+		String raw = createdAt + SEPARATOR + orderId;
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static OrderCursor decode(String cursor){
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(SEPARATOR);
+			if (separator <= 0 || separator == raw.length() - 1){
+				throw new InvalidCursorException("Invalid cursor: " + cursor);
+			}
+			String orderId = raw.substring(separator + 1);
+			// order ids are uuid columns, a tampered id is a bad cursor, not a missing order
+			UUID.fromString(orderId);
+			return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)), orderId);
+		} catch (IllegalArgumentException | DateTimeParseException ex) {
+			throw new InvalidCursorException("Invalid cursor: " + cursor);
+		}
+	}
+}
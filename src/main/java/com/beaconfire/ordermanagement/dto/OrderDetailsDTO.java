@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * @author luluxue
  * @date 2025-12-31
@@ -20,4 +22,7 @@ public class OrderDetailsDTO {
 	private PaymentResponseDTO payment;
 	// from shipmentService, trackingNumber, carrier...
 	private ShipmentResponseDTO shipment;
+	// status per optional section (returns, products, payment, shipment)
+	// anything but OK means that section holds a fallback value
+	private Map<String, SectionStatus> sections;
 }
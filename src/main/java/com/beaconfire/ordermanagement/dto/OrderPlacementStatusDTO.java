@@ -0,0 +1,28 @@
+package com.beaconfire.ordermanagement.dto;
+
+import com.beaconfire.ordermanagement.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * @author luluxue
+ * @date 2026-01-26
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderPlacementStatusDTO {
+	private String orderId;
+	// PROCESSING while priced in the background, PENDING once placed, REJECTED if it failed
+	private OrderStatus status;
+	// null until the order is priced
+	private BigDecimal totalAmount;
+	private String failureReason;
+	// where to poll, e.g. /api/v1/orders/{id}/status
+	private String statusUrl;
+}
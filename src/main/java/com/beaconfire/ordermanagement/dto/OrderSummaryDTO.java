@@ -0,0 +1,27 @@
+package com.beaconfire.ordermanagement.dto;
+
+import com.beaconfire.ordermanagement.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * @author luluxue
+ * @date 2026-01-12
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummaryDTO {
+	// one row of a customer's order history, built directly by the query
+	// (no Order/OrderItem entities are loaded)
+	private String orderId;
+	private OrderStatus status;
+	private BigDecimal totalAmount;
+	private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.beaconfire.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author luluxue
+ * @date 2026-01-05
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductAvailabilityDTO {
+	// one entry per requested product in the bulk availability response
+	private String productId;
+	private Integer requestedQuantity;
+	private boolean available;
+}
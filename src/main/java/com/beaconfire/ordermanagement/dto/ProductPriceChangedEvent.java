@@ -0,0 +1,24 @@
+package com.beaconfire.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * @author luluxue
+ * @date 2026-01-23
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPriceChangedEvent {
+	// from ProductService, used to invalidate the local product cache
+	private String productId;
+	private BigDecimal unitPrice;
+	private LocalDateTime changedAt;
+}
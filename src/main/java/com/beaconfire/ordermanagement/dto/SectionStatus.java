@@ -0,0 +1,13 @@
+package com.beaconfire.ordermanagement.dto;
+
+/**
+ * @author luluxue
+ * @date 2026-01-24
+ */
+
+// how each optional section of OrderDetailsDTO was filled
+public enum SectionStatus {
+	OK,
+	TIMEOUT,        // missed its share of the request deadline, fallback value returned
+	UNAVAILABLE     // downstream error, bulkhead or executor full, fallback value returned
+}
@@ -0,0 +1,44 @@
+package com.beaconfire.ordermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @author luluxue
+ * @date 2026-01-09
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SliceResponseDTO<T> {
+	// one slice of a cursor-paginated list, there is no total count on purpose
+	private List<T> content;
+	private int size;
+	private boolean hasNext;
+	// pass it back as ?cursor= to get the next slice, null on the last slice
+	private String nextCursor;
+	
+	// the next cursor points at the last element of the slice
+	public static <T> SliceResponseDTO<T> of(Slice<T> slice, Function<T, OrderCursor> cursorOf){
+		String nextCursor = null;
+		if (slice.hasNext() && slice.hasContent()){
+			T last = slice.getContent().get(slice.getNumberOfElements() - 1);
+			nextCursor = cursorOf.apply(last).encode();
+		}
+		
+		return SliceResponseDTO.<T>builder()
+				.content(slice.getContent())
+				.size(slice.getNumberOfElements())
+				.hasNext(slice.hasNext())
+				.nextCursor(nextCursor)
+				.build();
+	}
+}
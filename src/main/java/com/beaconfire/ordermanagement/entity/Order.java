@@ -1,15 +1,16 @@
 package com.beaconfire.ordermanagement.entity;
 
 import com.beaconfire.ordermanagement.dto.ItemQuantityDTO;
+import com.beaconfire.ordermanagement.util.TimeOrderedIds;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.*;
+import org.hibernate.annotations.Type;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -18,17 +19,24 @@ import java.util.stream.Collectors;
  */
 
 @Entity
-@Table(name="orders")
+// keyset pagination seeks on (created_at DESC, order_id DESC),
+// a customer's history on (user_id, created_at)
+@Table(name="orders",
+		indexes = {
+				@Index(name = "idx_orders_created_at_id", columnList = "created_at DESC, order_id DESC"),
+				@Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at DESC, order_id DESC")
+		})
 @Data
 @AllArgsConstructor
+@NoArgsConstructor
 @Builder
 public class Order {
+	// time-ordered UUIDv7, a String in Java and a native uuid column through OrderIdType
+	// (order_items.order_id follows it), assigned in assignId() when the order is first persisted
 	@Id
 	@Column(name="order_id", updatable=false, nullable=false)
+	@Type(OrderIdType.class)
 	private String id;
-	public Order(){
-		this.id = UUID.randomUUID().toString();
-	}
 
 	// foreign keys
 	@Column(name="user_id", updatable=false, nullable=false)
@@ -62,6 +70,19 @@ public class Order {
 	@Column(name = "order_confirmed_at")
 	private LocalDateTime orderConfirmedAt;
 	
+	// why an async placement was REJECTED, shown on the status endpoint
+	@Column(name = "failure_reason")
+	private String failureReason;
+	
+	// only for new orders: Hibernate also calls the no-arg constructor for every order it loads,
+	// an id generated there would be thrown away each time
+	@PrePersist
+	void assignId(){
+		if (id == null){
+			id = TimeOrderedIds.next();
+		}
+	}
+	
 	// get all returnedItems
 	public List<ReturnedItem> getAllReturnedItems(){
 		return items.stream()
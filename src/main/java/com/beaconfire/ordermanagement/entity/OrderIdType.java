@@ -0,0 +1,95 @@
+package com.beaconfire.ordermanagement.entity;
+
+import com.beaconfire.ordermanagement.exception.OrderNotFoundException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+/*
+* order ids are strings everywhere outside the entity (DTOs, events, cursors, other services),
+* in the database they are a native uuid: 16 bytes in the primary key and in the
+* order_items foreign key instead of 36 characters, compared as one value.
+* a user type rather than an AttributeConverter, converters are not applied to @Id attributes.
+* JPQL parameters compared with Order.id are bound through it as well.
+* */
+public class OrderIdType implements UserType<String> {
+	
+	@Override
+	public int getSqlType(){
+		return SqlTypes.UUID;
+	}
+	
+	@Override
+	public Class<String> returnedClass(){
+		return String.class;
+	}
+	
+	@Override
+	public boolean equals(String x, String y){
+		return Objects.equals(x, y);
+	}
+	
+	@Override
+	public int hashCode(String orderId){
+		return Objects.hashCode(orderId);
+	}
+	
+	@Override
+	public String nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+			throws SQLException {
+		UUID orderId = rs.getObject(position, UUID.class);
+		return orderId == null ? null : orderId.toString();
+	}
+	
+	@Override
+	public void nullSafeSet(PreparedStatement st, String orderId, int index, SharedSessionContractImplementor session)
+			throws SQLException {
+		if (orderId == null){
+			st.setNull(index, Types.OTHER);
+			return;
+		}
+		st.setObject(index, toUuid(orderId));
+	}
+	
+	private UUID toUuid(String orderId){
+		try {
+			return UUID.fromString(orderId);
+		} catch (IllegalArgumentException ex) {
+			// no order can have this id, same answer as for an id that is not in the table
+			throw new OrderNotFoundException("Order not found with ID: " + orderId);
+		}
+	}
+	
+	// strings are immutable, nothing to copy
+	@Override
+	public String deepCopy(String orderId){
+		return orderId;
+	}
+	
+	@Override
+	public boolean isMutable(){
+		return false;
+	}
+	
+	@Override
+	public Serializable disassemble(String orderId){
+		return orderId;
+	}
+	
+	@Override
+	public String assemble(Serializable cached, Object owner){
+		return (String) cached;
+	}
+}
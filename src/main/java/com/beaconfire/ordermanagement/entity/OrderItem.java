@@ -23,8 +23,11 @@ import java.util.UUID;
 @NoArgsConstructor
 @Builder
 public class OrderItem {
+	// pooled sequence ids: Hibernate knows the id before the INSERT, so the
+	// items of an order go out as one JDBC batch (IDENTITY disables batching)
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+	@SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_seq", allocationSize = 50)
 	private Long id;
 	
 	// foreign key
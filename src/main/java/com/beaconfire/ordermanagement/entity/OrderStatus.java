@@ -20,6 +20,7 @@ public enum OrderStatus {
 	RETURNED,            // return entire order
 	PENDING_PARTIALLY_RETURNED,
 	PARTIALLY_RETURNED,     //partial return
-	PROCESSING,
-	MANUAL_INTERVENTION_REQUIRED
+	PROCESSING,             // accepted by the async endpoint, not priced yet
+	MANUAL_INTERVENTION_REQUIRED,
+	REJECTED                // async placement failed before payment, see failureReason
 }
@@ -0,0 +1,65 @@
+package com.beaconfire.ordermanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author luluxue
+ * @date 2026-01-07
+ */
+@Data
+@Entity
+@Table(name = "outbox_events",
+		indexes = @Index(name = "idx_outbox_published_at_id", columnList = "published_at, id"))
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+	// sequence ids keep insertion order and allow batched inserts
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+	@SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+	private Long id;
+	
+	// order id, also used as the Kafka record key
+	@Column(name = "aggregate_id", nullable = false)
+	private String aggregateId;
+	
+	@Column(nullable = false)
+	private String topic;
+	
+	// fully qualified class name of the event DTO
+	@Column(name = "payload_type", nullable = false)
+	private String payloadType;
+	
+	// event serialized as JSON
+	@Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+	private String payload;
+	
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+	
+	// null until the relay got an ack from the broker
+	@Column(name = "published_at")
+	private LocalDateTime publishedAt;
+	
+	@Column(nullable = false)
+	private int attempts;
+	
+	// lease of the relay that is sending the event, other relays leave it (and its order) alone until then
+	@Column(name = "claimed_until")
+	private LocalDateTime claimedUntil;
+	
+	// set when the relay gave up on the event (max attempts, or a payload that cannot be read),
+	// parked events are no longer sent and stay in the table until someone looks at them
+	@Column(name = "parked_at")
+	private LocalDateTime parkedAt;
+	
+	@Column(name = "last_error", length = 500)
+	private String lastError;
+}
@@ -20,6 +20,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 public class ReturnedItem {
+	// generated in the application, so the rows can be batch inserted too
 	@Id
 	@GeneratedValue(strategy = GenerationType.UUID)
 	private String id;
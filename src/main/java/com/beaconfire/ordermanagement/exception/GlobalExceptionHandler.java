@@ -2,11 +2,14 @@ package com.beaconfire.ordermanagement.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * @author luluxue
  * @date 2025-11-17
@@ -105,4 +108,49 @@ public class GlobalExceptionHandler {
 		
 		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
 	}
+	
+	@ExceptionHandler(InvalidCursorException.class)
+	public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex,
+	                                                         HttpServletRequest request){
+		log.error("InvalidCursorException: {}", ex.getMessage());
+		ErrorResponse errorResponse = ErrorResponse.builder()
+				.path(request.getRequestURI())
+				.status(HttpStatus.BAD_REQUEST.value())
+				.error(ex.getMessage())
+				.build();
+		
+		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+	}
+	
+	// placement pipeline is full, the client should retry with the same Idempotency-Key
+	@ExceptionHandler(OrderPlacementBusyException.class)
+	public ResponseEntity<ErrorResponse> handlePlacementBusy(OrderPlacementBusyException ex,
+	                                                         HttpServletRequest request){
+		log.warn("OrderPlacementBusyException: {}", ex.getMessage());
+		ErrorResponse errorResponse = ErrorResponse.builder()
+				.path(request.getRequestURI())
+				.status(HttpStatus.SERVICE_UNAVAILABLE.value())
+				.error(ex.getMessage())
+				.build();
+		
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(errorResponse);
+	}
+	
+	// order details executor is full and the order itself could not be loaded, it has no fallback
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<ErrorResponse> handleRejectedExecution(RejectedExecutionException ex,
+	                                                             HttpServletRequest request){
+		log.warn("RejectedExecutionException: {}", ex.getMessage());
+		ErrorResponse errorResponse = ErrorResponse.builder()
+				.path(request.getRequestURI())
+				.status(HttpStatus.SERVICE_UNAVAILABLE.value())
+				.error("Too many requests in progress, please retry")
+				.build();
+		
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(errorResponse);
+	}
 }
@@ -0,0 +1,11 @@
+package com.beaconfire.ordermanagement.exception;
+
+/**
+ * @author luluxue
+ * @date 2026-01-09
+ */
+public class InvalidCursorException extends RuntimeException{
+	public InvalidCursorException(String message){
+		super(message);
+	}
+}
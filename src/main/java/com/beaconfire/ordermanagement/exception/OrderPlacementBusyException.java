@@ -0,0 +1,11 @@
+package com.beaconfire.ordermanagement.exception;
+
+/**
+ * @author luluxue
+ * @date 2026-01-26
+ */
+public class OrderPlacementBusyException extends RuntimeException{
+	public OrderPlacementBusyException(String message){
+		super(message);
+	}
+}
@@ -0,0 +1,116 @@
+package com.beaconfire.ordermanagement.repository;
+
+import com.beaconfire.ordermanagement.dto.OrderItemResponseDTO;
+import com.beaconfire.ordermanagement.dto.OrderResponseDTO;
+import com.beaconfire.ordermanagement.dto.ReturnedItemResponseDTO;
+import com.beaconfire.ordermanagement.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * @author luluxue
+ * @date 2026-01-14
+ */
+/*
+* read-only query layer for order responses
+* builds the response DTOs straight from result rows: no managed entities,
+* no persistence-context snapshots, no dirty checking and no lazy proxies
+*
+* Spring's @Transactional, not jakarta's (OrderService): only it has readOnly. the queries run
+* on the order details executor outside any service transaction, so this starts their transaction,
+* read-only like OrderService's lookups: no flush, and a read-only JDBC connection
+* */
+@Repository
+@Transactional(readOnly = true)
+public class OrderQueryRepository {
+	// one row per order item, orders without items come back with null item columns
+	private static final String ORDER_ROWS_QUERY =
+			"SELECT o.id AS orderId, o.userId AS userId, o.status AS status, " +
+			"o.totalAmount AS totalAmount, o.createdAt AS createdAt, " +
+			"i.productId AS productId, i.productName AS productName, i.unitPrice AS unitPrice, " +
+			"i.quantity AS quantity, i.subtotal AS subtotal " +
+			"FROM Order o LEFT JOIN o.items i " +
+			"WHERE o.id IN :ids " +
+			"ORDER BY o.id, i.id";
+	
+	private static final String RETURNED_ITEMS_QUERY =
+			"SELECT new com.beaconfire.ordermanagement.dto.ReturnedItemResponseDTO(" +
+			"r.id, r.quantity, r.returnReason, r.refundAmount, r.refundStatus, r.refundTransactionId, r.refundedAt) " +
+			"FROM ReturnedItem r WHERE r.orderItem.order.id = :orderId";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	// single order, used by getOrderDetails
+	public Optional<OrderResponseDTO> findOrderResponse(String orderId){
+		return findOrderResponses(List.of(orderId)).stream().findFirst();
+	}
+	
+	// several orders, returned in the order of orderIds (missing ids are skipped)
+	public List<OrderResponseDTO> findOrderResponses(List<String> orderIds){
+		if (orderIds.isEmpty()){
+			return List.of();
+		}
+		
+		List<Tuple> rows = entityManager.createQuery(ORDER_ROWS_QUERY, Tuple.class)
+				.setParameter("ids", orderIds)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultList();
+		
+		return toOrderResponses(rows, orderIds);
+	}
+	
+	// package-private for OrderMappingBenchmark (src/jmh/java), which compares it with OrderMapper
+	static List<OrderResponseDTO> toOrderResponses(List<Tuple> rows, List<String> orderIds){
+		// 1. group the rows by order
+		Map<String, OrderResponseDTO> ordersById = new HashMap<>();
+		for (Tuple row: rows){
+			String orderId = row.get("orderId", String.class);
+			OrderResponseDTO order = ordersById.computeIfAbsent(orderId, id -> OrderResponseDTO.builder()
+					.orderId(id)
+					.userId(row.get("userId", String.class))
+					.status(row.get("status", OrderStatus.class))
+					.totalAmount(row.get("totalAmount", BigDecimal.class))
+					.createdAt(row.get("createdAt", LocalDateTime.class))
+					.items(new ArrayList<>())
+					.build());
+			
+			// 2. add the item of this row, if any
+			String productId = row.get("productId", String.class);
+			if (productId != null){
+				order.getItems().add(OrderItemResponseDTO.builder()
+						.productId(productId)
+						.productName(row.get("productName", String.class))
+						.unitPrice(row.get("unitPrice", BigDecimal.class))
+						.quantity(row.get("quantity", Integer.class))
+						.subtotal(row.get("subtotal", BigDecimal.class))
+						.build());
+			}
+		}
+		
+		// 3. keep the caller's order
+		List<OrderResponseDTO> orders = new ArrayList<>(ordersById.size());
+		for (String orderId: orderIds){
+			OrderResponseDTO order = ordersById.get(orderId);
+			if (order != null){
+				orders.add(order);
+			}
+		}
+		return orders;
+	}
+	
+	public List<ReturnedItemResponseDTO> findReturnedItemResponses(String orderId){
+		return entityManager.createQuery(RETURNED_ITEMS_QUERY, ReturnedItemResponseDTO.class)
+				.setParameter("orderId", orderId)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultList();
+	}
+}
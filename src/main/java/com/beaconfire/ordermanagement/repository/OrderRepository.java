@@ -1,13 +1,18 @@
 package com.beaconfire.ordermanagement.repository;
 
+import com.beaconfire.ordermanagement.dto.OrderSummaryDTO;
 import com.beaconfire.ordermanagement.entity.Order;
+import com.beaconfire.ordermanagement.entity.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,15 +21,53 @@ import java.util.Optional;
  */
 
 @Repository
-public interface OrderRepository extends JpaRepository <Order, String>{
+public interface OrderRepository extends JpaRepository <Order, String>, OrderVersionRepository {
 //	// show order history with pagination
 //	Page<Order> findAll(Pageable pageable);
 	
-	// used for pagination
-	// JOIN FETCH: FORCED TO RETRIEVE ALL RELATED ITEMS
-	// DISTINCT: SOLVE DUPLICATES
-	@Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items")
-	Page<Order> findAllWithItems(Pageable pageable);
+	// used for pagination, in two phases:
+	// JOIN FETCH + Pageable would make Hibernate load every order and page in memory,
+	// so phase 1 pages over order ids only and phase 2 fetches items for those ids
+	
+	// async placements that are still PROCESSING or were REJECTED are not placed orders,
+	// the lists and histories leave them out, GET /orders/{id}/status shows them
+	String PLACED = "o.status NOT IN (com.beaconfire.ordermanagement.entity.OrderStatus.PROCESSING, "
+			+ "com.beaconfire.ordermanagement.entity.OrderStatus.REJECTED)";
+	
+	// phase 1 (offset): sorting comes from the Pageable
+	@Query(value = "SELECT o.id FROM Order o WHERE " + PLACED,
+			countQuery = "SELECT count(o) FROM Order o WHERE " + PLACED)
+	Page<String> findPageOfIds(Pageable pageable);
+	
+	// phase 1 (keyset): newest first, first page
+	@Query("SELECT o.id FROM Order o WHERE " + PLACED + " ORDER BY o.createdAt DESC, o.id DESC")
+	List<String> findFirstIds(Pageable pageable);
+	
+	// phase 1 (keyset): newest first, seek past the last (createdAt, id) returned
+	@Query("SELECT o.id FROM Order o " +
+			"WHERE (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) AND " + PLACED +
+			" ORDER BY o.createdAt DESC, o.id DESC")
+	List<String> findIdsBefore(@Param("createdAt") LocalDateTime createdAt,
+	                           @Param("id") String id,
+	                           Pageable pageable);
+	
+	// phase 2 is a projection query in OrderQueryRepository
+	
+	// customer order history: summary rows built by a constructor expression,
+	// served by the (user_id, created_at) index without loading OrderItem entities
+	@Query("SELECT new com.beaconfire.ordermanagement.dto.OrderSummaryDTO(o.id, o.status, o.totalAmount, o.createdAt) " +
+			"FROM Order o WHERE o.userId = :userId AND " + PLACED +
+			" ORDER BY o.createdAt DESC, o.id DESC")
+	List<OrderSummaryDTO> findFirstSummariesByUserId(@Param("userId") String userId, Pageable pageable);
+	
+	@Query("SELECT new com.beaconfire.ordermanagement.dto.OrderSummaryDTO(o.id, o.status, o.totalAmount, o.createdAt) " +
+			"FROM Order o WHERE o.userId = :userId AND " + PLACED +
+			" AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+			"ORDER BY o.createdAt DESC, o.id DESC")
+	List<OrderSummaryDTO> findSummariesByUserIdBefore(@Param("userId") String userId,
+	                                                  @Param("createdAt") LocalDateTime createdAt,
+	                                                  @Param("id") String id,
+	                                                  Pageable pageable);
 	
 	// used to fetch single order info
 	// JOIN FETCH: integrate all related items
@@ -33,4 +76,17 @@ public interface OrderRepository extends JpaRepository <Order, String>{
 	
 	// findByIdempotencyKey
 	Optional<Order> findByIdempotencyKey(String idempotencyKey);
+	
+	// async placements that never finished, e.g. the instance stopped while pricing them
+	@Modifying
+	@Query("UPDATE Order o SET o.status = :rejected, o.failureReason = :reason, o.version = o.version + 1 " +
+			"WHERE o.status = :processing AND o.createdAt < :before")
+	int rejectStalePlacements(@Param("processing") OrderStatus processing,
+	                          @Param("rejected") OrderStatus rejected,
+	                          @Param("reason") String reason,
+	                          @Param("before") LocalDateTime before);
+	
+	// primary key lookup of the @Version only, decides if a cached OrderDetailsDTO is still current
+	@Query("SELECT o.version FROM Order o WHERE o.id = :orderId")
+	Optional<Integer> findVersionById(@Param("orderId") String orderId);
 }
@@ -0,0 +1,17 @@
+package com.beaconfire.ordermanagement.repository;
+
+import com.beaconfire.ordermanagement.entity.Order;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+/*
+* repository fragment of OrderRepository (implemented in OrderVersionRepositoryImpl)
+* for changes that belong to an order but do not touch its row, e.g. refund results on its
+* returned items. the order's @Version is what OrderDetailsCache checks, so it has to move too
+* */
+public interface OrderVersionRepository {
+	// bump the @Version of a loaded order on commit, even if the order itself is unchanged
+	void incrementVersion(Order order);
+}
@@ -0,0 +1,24 @@
+package com.beaconfire.ordermanagement.repository;
+
+import com.beaconfire.ordermanagement.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+public class OrderVersionRepositoryImpl implements OrderVersionRepository {
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	/*
+	* a @Lock query is not enough here: Hibernate does not apply OPTIMISTIC_FORCE_INCREMENT to an
+	* order that is already in the persistence context, and the event handlers always have it loaded
+	* */
+	@Override
+	public void incrementVersion(Order order){
+		entityManager.lock(order, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+	}
+}
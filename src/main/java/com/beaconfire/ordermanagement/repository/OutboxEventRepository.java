@@ -0,0 +1,62 @@
+package com.beaconfire.ordermanagement.repository;
+
+import com.beaconfire.ordermanagement.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * @author luluxue
+ * @date 2026-01-07
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+	// oldest unpublished events first, without parked events and events under a live lease
+	// the row lock only lives for the claim transaction: a relay on another instance waits for it,
+	// then no longer sees the rows that were just leased
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL "
+			+ "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+	List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+	
+	// orders of which some event is being sent by a relay right now
+	@Query("SELECT DISTINCT e.aggregateId FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL "
+			+ "AND e.claimedUntil >= :now AND e.aggregateId IN :aggregateIds")
+	Set<String> findLeasedAggregateIds(@Param("now") LocalDateTime now,
+	                                   @Param("aggregateIds") Collection<String> aggregateIds);
+	
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.claimedUntil = :until WHERE e.id IN :ids")
+	int claim(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+	
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt, e.claimedUntil = NULL WHERE e.id IN :ids")
+	int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+	
+	// give events back without an attempt, e.g. when they were held back behind a failed event
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+	int release(@Param("ids") Collection<Long> ids);
+	
+	long countByPublishedAtIsNullAndParkedAtIsNull();
+	
+	long countByParkedAtIsNotNull();
+	
+	@Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL")
+	Optional<LocalDateTime> findOldestPendingCreatedAt();
+	
+	@Modifying
+	@Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+	int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
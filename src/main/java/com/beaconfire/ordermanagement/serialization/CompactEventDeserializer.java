@@ -0,0 +1,57 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+/*
+* reads CompactEventSerializer records. a record without the magic byte is handed to the
+* fallback (the JSON deserializer), so a topic can be switched to binary while older
+* JSON records are still waiting to be consumed. JSON never starts with 0x00.
+* */
+public class CompactEventDeserializer implements Deserializer<Object> {
+	private final EventSchemaRegistry registry;
+	private final Deserializer<Object> fallback;
+	
+	public CompactEventDeserializer(EventSchemaRegistry registry, Deserializer<Object> fallback){
+		this.registry = registry;
+		this.fallback = fallback;
+	}
+	
+	@Override
+	public Object deserialize(String topic, byte[] data){
+		return deserialize(topic, null, data);
+	}
+	
+	@Override
+	public Object deserialize(String topic, Headers headers, byte[] data){
+		if (data == null){
+			return null;
+		}
+		if (data.length == 0 || data[0] != CompactEventSerializer.MAGIC){
+			if (fallback == null){
+				throw new SerializationException("Record on " + topic + " is not in the compact event format");
+			}
+			return headers != null ? fallback.deserialize(topic, headers, data) : fallback.deserialize(topic, data);
+		}
+		
+		CompactInput in = new CompactInput(data, 1);
+		EventSchema schema = registry.schemaFor(in.readInt());
+		Object event = schema.read(in);
+		if (in.hasRemaining()){
+			throw new SerializationException("Trailing bytes after " + schema.type().getName() + " on " + topic);
+		}
+		return event;
+	}
+	
+	@Override
+	public void close(){
+		if (fallback != null){
+			fallback.close();
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+/*
+* record value = [magic 0x00][schema id, 4 bytes][event, laid out as in EventSchema]
+* no field names and no type headers, the schema id says which DTO it is
+* */
+public class CompactEventSerializer implements Serializer<Object> {
+	static final byte MAGIC = 0x00;
+	
+	private final EventSchemaRegistry registry;
+	
+	public CompactEventSerializer(EventSchemaRegistry registry){
+		this.registry = registry;
+	}
+	
+	@Override
+	public byte[] serialize(String topic, Object data){
+		if (data == null){
+			return null;
+		}
+		
+		try {
+			EventSchema schema = registry.schemaFor(data.getClass());
+			CompactOutput out = new CompactOutput(128);
+			out.writeByte(MAGIC);
+			out.writeInt(schema.id());
+			schema.write(data, out);
+			return out.toByteArray();
+		} catch (SerializationException ex) {
+			throw ex;
+		} catch (RuntimeException ex) {
+			throw new SerializationException("Could not serialize " + data.getClass().getName() + " for " + topic, ex);
+		}
+	}
+}
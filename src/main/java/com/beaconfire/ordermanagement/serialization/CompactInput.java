@@ -0,0 +1,102 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+// reader for CompactOutput, a truncated record fails instead of reading past the end
+final class CompactInput {
+	private final byte[] buffer;
+	private int position;
+	
+	CompactInput(byte[] buffer, int position){
+		this.buffer = buffer;
+		this.position = position;
+	}
+	
+	int readByte(){
+		require(1);
+		return buffer[position++];
+	}
+	
+	int readInt(){
+		require(4);
+		return ((buffer[position++] & 0xFF) << 24)
+				| ((buffer[position++] & 0xFF) << 16)
+				| ((buffer[position++] & 0xFF) << 8)
+				| (buffer[position++] & 0xFF);
+	}
+	
+	long readVarLong(){
+		long zigZag = 0;
+		for (int shift = 0; shift < 64; shift += 7){
+			require(1);
+			byte b = buffer[position++];
+			zigZag |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0){
+				return (zigZag >>> 1) ^ -(zigZag & 1);
+			}
+		}
+		throw new SerializationException("Malformed varint at byte " + position);
+	}
+	
+	byte[] readBytes(){
+		int length = readLength(readVarLong());
+		require(length);
+		byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+		position += length;
+		return bytes;
+	}
+	
+	String readString(){
+		long lengthPlusOne = readVarLong();
+		if (lengthPlusOne == 0){
+			return null;
+		}
+		int length = readLength(lengthPlusOne - 1);
+		require(length);
+		String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+	
+	// reads a length written by CompactOutput.endLength, returns where that object ends
+	int readEnd(){
+		int length = readLength(readVarLong());
+		return position + length;
+	}
+	
+	boolean isBefore(int end){
+		return position < end;
+	}
+	
+	// skips what is left of an object, e.g. fields only a newer writer knows
+	void skipTo(int end){
+		if (position > end){
+			throw new SerializationException("Object ends at byte " + end + ", read up to " + position);
+		}
+		position = end;
+	}
+	
+	boolean hasRemaining(){
+		return position < buffer.length;
+	}
+	
+	private int readLength(long length){
+		if (length < 0 || length > buffer.length - position){
+			throw new SerializationException("Invalid length " + length + " at byte " + position);
+		}
+		return (int) length;
+	}
+	
+	private void require(int bytes){
+		if (position + bytes > buffer.length){
+			throw new SerializationException("Record ends at byte " + buffer.length + ", needed " + (position + bytes));
+		}
+	}
+}
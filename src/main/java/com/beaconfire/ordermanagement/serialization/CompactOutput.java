@@ -0,0 +1,98 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+// growable byte buffer with zig-zag varints, one per serialized record
+final class CompactOutput {
+	private byte[] buffer;
+	private int position;
+	
+	CompactOutput(int initialCapacity){
+		this.buffer = new byte[initialCapacity];
+	}
+	
+	void writeByte(int value){
+		ensureCapacity(1);
+		buffer[position++] = (byte) value;
+	}
+	
+	void writeInt(int value){
+		ensureCapacity(4);
+		buffer[position++] = (byte) (value >>> 24);
+		buffer[position++] = (byte) (value >>> 16);
+		buffer[position++] = (byte) (value >>> 8);
+		buffer[position++] = (byte) value;
+	}
+	
+	void writeVarLong(long value){
+		ensureCapacity(10);
+		long zigZag = (value << 1) ^ (value >> 63);
+		while ((zigZag & ~0x7FL) != 0){
+			buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+			zigZag >>>= 7;
+		}
+		buffer[position++] = (byte) zigZag;
+	}
+	
+	void writeBytes(byte[] bytes){
+		writeVarLong(bytes.length);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+	
+	void writeString(String value){
+		if (value == null){
+			writeVarLong(0);
+			return;
+		}
+		byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(utf8.length + 1L);
+		ensureCapacity(utf8.length);
+		System.arraycopy(utf8, 0, buffer, position, utf8.length);
+		position += utf8.length;
+	}
+	
+	// reserves one byte for the length of what is written next, endLength fills it in
+	int startLength(){
+		ensureCapacity(1);
+		return position++;
+	}
+	
+	// lengths below 64 fit the reserved byte, the bytes of a longer object are moved up
+	void endLength(int mark){
+		int length = position - mark - 1;
+		long zigZag = (long) length << 1;
+		int size = 1;
+		for (long rest = zigZag >>> 7; rest != 0; rest >>>= 7){
+			size++;
+		}
+		if (size > 1){
+			ensureCapacity(size - 1);
+			System.arraycopy(buffer, mark + 1, buffer, mark + size, length);
+			position += size - 1;
+		}
+		
+		int at = mark;
+		while ((zigZag & ~0x7FL) != 0){
+			buffer[at++] = (byte) ((zigZag & 0x7F) | 0x80);
+			zigZag >>>= 7;
+		}
+		buffer[at] = (byte) zigZag;
+	}
+	
+	byte[] toByteArray(){
+		return Arrays.copyOf(buffer, position);
+	}
+	
+	private void ensureCapacity(int extra){
+		if (position + extra > buffer.length){
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+		}
+	}
+}
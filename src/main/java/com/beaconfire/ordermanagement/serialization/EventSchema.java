@@ -0,0 +1,167 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+/*
+* the binary layout of one event class, built once with reflection:
+* - object = [length][kind, value per field], fields in declaration order, without names
+* - the schema id is a fingerprint of the class name only, so producer and consumer agree on it
+*   without talking to a registry server, and it stays the same when the fields change
+* - schema resolution like Avro, for fields added at the end of a class: a reader fills in the
+*   fields an older writer did not have (left as the no-arg constructor sets them) and skips
+*   the ones only a newer writer has. a field whose type changed fails on its kind.
+*   fields are never removed or reordered, only appended
+* supported field types: String, int/long/boolean (and boxes), BigDecimal,
+* LocalDateTime, LocalDate, enums, List of those, and nested DTOs with a no-arg constructor
+* */
+public final class EventSchema {
+	private final int id;
+	private final Class<?> type;
+	private final String signature;
+	private final MethodHandle constructor;
+	private final List<FieldCodec> fields;
+	
+	private EventSchema(Class<?> type, Map<Class<?>, EventSchema> building){
+		this.type = type;
+		building.put(type, this);
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+			this.constructor = lookup.unreflectConstructor(type.getDeclaredConstructor());
+			
+			// declaration order, the order the fields were added in
+			List<FieldCodec> codecs = new ArrayList<>();
+			StringBuilder signature = new StringBuilder(type.getName()).append('{');
+			for (Field field: type.getDeclaredFields()){
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())){
+					continue;
+				}
+				ValueCodec codec = codecFor(field.getGenericType(), building);
+				codecs.add(new FieldCodec(field.getName(), lookup.unreflectGetter(field),
+						lookup.unreflectSetter(field), codec));
+				signature.append(field.getName()).append(':').append(codec.signature()).append(';');
+			}
+			this.fields = List.copyOf(codecs);
+			this.signature = signature.append('}').toString();
+			this.id = fingerprint(type.getName());
+		} catch (NoSuchMethodException ex) {
+			throw new IllegalArgumentException(type.getName() + " needs a no-arg constructor", ex);
+		} catch (IllegalAccessException ex) {
+			throw new IllegalArgumentException(type.getName() + " fields are not accessible", ex);
+		}
+	}
+	
+	static EventSchema of(Class<?> type){
+		return new EventSchema(type, new HashMap<>());
+	}
+	
+	public int id(){
+		return id;
+	}
+	
+	public Class<?> type(){
+		return type;
+	}
+	
+	public String signature(){
+		return signature;
+	}
+	
+	void write(Object event, CompactOutput out){
+		try {
+			int mark = out.startLength();
+			for (FieldCodec field: fields){
+				out.writeByte(field.codec.kind());
+				field.codec.write(field.getter.invoke(event), out);
+			}
+			out.endLength(mark);
+		} catch (RuntimeException ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new IllegalStateException("Could not read " + type.getName(), ex);
+		}
+	}
+	
+	Object read(CompactInput in){
+		try {
+			int end = in.readEnd();
+			Object event = constructor.invoke();
+			// fields an older writer did not have keep their default
+			for (int i = 0; i < fields.size() && in.isBefore(end); i++){
+				FieldCodec field = fields.get(i);
+				int kind = in.readByte();
+				if (kind != field.codec.kind()){
+					throw new SerializationException("Field " + field.name + " of " + type.getName()
+							+ " was written as kind " + kind + ", expected " + field.codec.kind());
+				}
+				field.setter.invoke(event, field.codec.read(in));
+			}
+			// fields only a newer writer has
+			in.skipTo(end);
+			return event;
+		} catch (RuntimeException ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new IllegalStateException("Could not create " + type.getName(), ex);
+		}
+	}
+	
+	private static int fingerprint(String signature){
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(signature.getBytes(StandardCharsets.UTF_8));
+			return ((digest[0] & 0xFF) << 24) | ((digest[1] & 0xFF) << 16) | ((digest[2] & 0xFF) << 8) | (digest[3] & 0xFF);
+		} catch (Exception ex) {
+			throw new IllegalStateException("SHA-256 is not available", ex);
+		}
+	}
+	
+	private static ValueCodec codecFor(Type genericType, Map<Class<?>, EventSchema> building){
+		if (genericType instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class){
+			return ValueCodec.list(codecFor(parameterized.getActualTypeArguments()[0], building));
+		}
+		if (!(genericType instanceof Class<?> type)){
+			throw new IllegalArgumentException("Unsupported field type " + genericType);
+		}
+		
+		if (type == String.class) return ValueCodec.STRING;
+		if (type == int.class) return ValueCodec.INT;
+		if (type == Integer.class) return ValueCodec.nullable(ValueCodec.INT);
+		if (type == long.class) return ValueCodec.LONG;
+		if (type == Long.class) return ValueCodec.nullable(ValueCodec.LONG);
+		if (type == boolean.class) return ValueCodec.BOOLEAN;
+		if (type == Boolean.class) return ValueCodec.nullable(ValueCodec.BOOLEAN);
+		if (type == BigDecimal.class) return ValueCodec.nullable(ValueCodec.DECIMAL);
+		if (type == LocalDateTime.class) return ValueCodec.nullable(ValueCodec.DATE_TIME);
+		if (type == LocalDate.class) return ValueCodec.nullable(ValueCodec.DATE);
+		if (type.isEnum()) return ValueCodec.nullable(ValueCodec.enumOf(type));
+		
+		if (type.isPrimitive() || type.isArray() || type.getName().startsWith("java.")){
+			throw new IllegalArgumentException("Unsupported field type " + type.getName());
+		}
+		// nested DTO, written inline without its own schema id
+		EventSchema nested = building.get(type);
+		if (nested == null){
+			nested = new EventSchema(type, building);
+		}
+		return ValueCodec.nullable(ValueCodec.object(nested));
+	}
+	
+	private record FieldCodec(String name, MethodHandle getter, MethodHandle setter, ValueCodec codec) {
+	}
+}
@@ -0,0 +1,28 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+// GET /actuator/eventschemas: schema id -> field layout, to compare two services' registries
+@Endpoint(id = "eventschemas")
+public class EventSchemaEndpoint {
+	private final EventSchemaRegistry registry;
+	
+	public EventSchemaEndpoint(EventSchemaRegistry registry){
+		this.registry = registry;
+	}
+	
+	@ReadOperation
+	public Map<Integer, String> schemas(){
+		Map<Integer, String> schemas = new TreeMap<>();
+		registry.schemas().forEach(schema -> schemas.put(schema.id(), schema.signature()));
+		return schemas;
+	}
+}
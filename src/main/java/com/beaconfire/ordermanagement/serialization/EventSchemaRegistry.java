@@ -0,0 +1,64 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+/*
+* local stand-in for a schema registry: schema id <-> event class, kept in memory.
+* ids are fingerprints of the class name (see EventSchema), so every service that
+* registers the same DTO gets the same id without a shared server, whichever version
+* of its fields it has.
+* the consumer side has to know the classes up front, the producer side also
+* registers a class the first time it sends one.
+* */
+@Slf4j
+public class EventSchemaRegistry {
+	private final Map<Class<?>, EventSchema> byType = new ConcurrentHashMap<>();
+	private final Map<Integer, EventSchema> byId = new ConcurrentHashMap<>();
+	
+	public EventSchemaRegistry(){
+	}
+	
+	public EventSchemaRegistry(Collection<Class<?>> eventTypes){
+		eventTypes.forEach(this::register);
+	}
+	
+	public EventSchema register(Class<?> type){
+		return byType.computeIfAbsent(type, key -> {
+			EventSchema schema = EventSchema.of(key);
+			EventSchema existing = byId.putIfAbsent(schema.id(), schema);
+			if (existing != null && existing.type() != key){
+				throw new IllegalStateException("Schema id " + schema.id() + " of " + key.getName()
+						+ " is already used by " + existing.type().getName());
+			}
+			log.debug("Registered event schema {} -> {}", schema.id(), schema.signature());
+			return schema;
+		});
+	}
+	
+	public EventSchema schemaFor(Class<?> type){
+		EventSchema schema = byType.get(type);
+		return schema != null ? schema : register(type);
+	}
+	
+	public EventSchema schemaFor(int id){
+		EventSchema schema = byId.get(id);
+		if (schema == null){
+			// written for a class this service does not know
+			throw new SerializationException("Unknown event schema id " + id);
+		}
+		return schema;
+	}
+	
+	public Collection<EventSchema> schemas(){
+		return byId.values();
+	}
+}
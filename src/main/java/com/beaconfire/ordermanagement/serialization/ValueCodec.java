@@ -0,0 +1,270 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+/*
+* reads and writes one field value; nullable() adds a presence byte in front of any codec
+* kind() is written in front of every field, so a reader notices a field whose type changed
+* instead of reading it as something else
+* */
+interface ValueCodec {
+	int NULLABLE = 0x40;
+	
+	void write(Object value, CompactOutput out);
+	
+	Object read(CompactInput in);
+	
+	String signature();
+	
+	int kind();
+	
+	// strings carry their own null marker: length + 1, 0 means null
+	ValueCodec STRING = new ValueCodec() {
+		public void write(Object value, CompactOutput out){
+			out.writeString((String) value);
+		}
+		
+		public Object read(CompactInput in){
+			return in.readString();
+		}
+		
+		public String signature(){
+			return "string";
+		}
+		
+		public int kind(){
+			return 1;
+		}
+	};
+	
+	ValueCodec INT = new ValueCodec() {
+		public void write(Object value, CompactOutput out){
+			out.writeVarLong((Integer) value);
+		}
+		
+		public Object read(CompactInput in){
+			return (int) in.readVarLong();
+		}
+		
+		public String signature(){
+			return "int";
+		}
+		
+		public int kind(){
+			return 2;
+		}
+	};
+	
+	ValueCodec LONG = new ValueCodec() {
+		public void write(Object value, CompactOutput out){
+			out.writeVarLong((Long) value);
+		}
+		
+		public Object read(CompactInput in){
+			return in.readVarLong();
+		}
+		
+		public String signature(){
+			return "long";
+		}
+		
+		public int kind(){
+			return 3;
+		}
+	};
+	
+	ValueCodec BOOLEAN = new ValueCodec() {
+		public void write(Object value, CompactOutput out){
+			out.writeByte((Boolean) value ? 1 : 0);
+		}
+		
+		public Object read(CompactInput in){
+			return in.readByte() != 0;
+		}
+		
+		public String signature(){
+			return "boolean";
+		}
+		
+		public int kind(){
+			return 4;
+		}
+	};
+	
+	// scale + unscaled value; amounts like 1234.56 fit in a few bytes
+	ValueCodec DECIMAL = new ValueCodec() {
+		public void write(Object value, CompactOutput out){
+			BigDecimal decimal = (BigDecimal) value;
+			out.writeVarLong(decimal.scale());
+			if (decimal.unscaledValue().bitLength() < 64){
+				out.writeByte(0);
+				out.writeVarLong(decimal.unscaledValue().longValue());
+			} else {
+				out.writeByte(1);
+				out.writeBytes(decimal.unscaledValue().toByteArray());
+			}
+		}
+		
+		public Object read(CompactInput in){
+			int scale = (int) in.readVarLong();
+			if (in.readByte() == 0){
+				return BigDecimal.valueOf(in.readVarLong(), scale);
+			}
+			return new BigDecimal(new BigInteger(in.readBytes()), scale);
+		}
+		
+		public String signature(){
+			return "decimal";
+		}
+		
+		public int kind(){
+			return 5;
+		}
+	};
+	
+	// local date-times are written as if they were UTC, read back the same way
+	ValueCodec DATE_TIME = new ValueCodec() {
+		public void write(Object value, CompactOutput out){
+			LocalDateTime dateTime = (LocalDateTime) value;
+			out.writeVarLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+			out.writeVarLong(dateTime.getNano());
+		}
+		
+		public Object read(CompactInput in){
+			return LocalDateTime.ofEpochSecond(in.readVarLong(), (int) in.readVarLong(), ZoneOffset.UTC);
+		}
+		
+		public String signature(){
+			return "datetime";
+		}
+		
+		public int kind(){
+			return 6;
+		}
+	};
+	
+	ValueCodec DATE = new ValueCodec() {
+		public void write(Object value, CompactOutput out){
+			out.writeVarLong(((LocalDate) value).toEpochDay());
+		}
+		
+		public Object read(CompactInput in){
+			return LocalDate.ofEpochDay(in.readVarLong());
+		}
+		
+		public String signature(){
+			return "date";
+		}
+		
+		public int kind(){
+			return 7;
+		}
+	};
+	
+	// by name, so reordering enum constants does not change the meaning of old records
+	static ValueCodec enumOf(Class<?> type){
+		return new ValueCodec() {
+			public void write(Object value, CompactOutput out){
+				out.writeString(((Enum<?>) value).name());
+			}
+			
+			@SuppressWarnings({"unchecked", "rawtypes"})
+			public Object read(CompactInput in){
+				return Enum.valueOf((Class) type, in.readString());
+			}
+			
+			public String signature(){
+				return "enum:" + type.getName();
+			}
+			
+			public int kind(){
+				return 8;
+			}
+		};
+	}
+	
+	static ValueCodec list(ValueCodec element){
+		return nullable(new ValueCodec() {
+			public void write(Object value, CompactOutput out){
+				List<?> list = (List<?>) value;
+				out.writeVarLong(list.size());
+				for (Object item: list){
+					element.write(item, out);
+				}
+			}
+			
+			public Object read(CompactInput in){
+				int size = (int) in.readVarLong();
+				List<Object> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++){
+					list.add(element.read(in));
+				}
+				return list;
+			}
+			
+			public String signature(){
+				return "list<" + element.signature() + ">";
+			}
+			
+			public int kind(){
+				return 9;
+			}
+		});
+	}
+	
+	static ValueCodec object(EventSchema schema){
+		return new ValueCodec() {
+			public void write(Object value, CompactOutput out){
+				schema.write(value, out);
+			}
+			
+			public Object read(CompactInput in){
+				return schema.read(in);
+			}
+			
+			// by name only, a nested DTO can gain fields without changing the outer one
+			public String signature(){
+				return schema.type().getName();
+			}
+			
+			public int kind(){
+				return 10;
+			}
+		};
+	}
+	
+	static ValueCodec nullable(ValueCodec codec){
+		return new ValueCodec() {
+			public void write(Object value, CompactOutput out){
+				if (value == null){
+					out.writeByte(0);
+					return;
+				}
+				out.writeByte(1);
+				codec.write(value, out);
+			}
+			
+			public Object read(CompactInput in){
+				return in.readByte() == 0 ? null : codec.read(in);
+			}
+			
+			public String signature(){
+				return codec.signature() + "?";
+			}
+			
+			public int kind(){
+				return NULLABLE | codec.kind();
+			}
+		};
+	}
+}
@@ -0,0 +1,124 @@
+package com.beaconfire.ordermanagement.service;
+
+import com.beaconfire.ordermanagement.dto.OrderResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * @author luluxue
+ * @date 2026-01-27
+ */
+/*
+* in-process front for the idempotency key check of createOrder
+* - recently completed keys: bounded Caffeine cache, a client retry gets the original response
+*   back without touching the database
+* - in-flight keys: one CompletableFuture per key in a ConcurrentHashMap (putIfAbsent, no locks).
+*   concurrent duplicates wait for the first request instead of racing it to the unique constraint
+* the database stays the source of truth: a key that is not here (other instance, restart, evicted)
+* still goes through findByIdempotencyKey and the unique constraint.
+* */
+@Component
+@Slf4j
+public class IdempotencyFrontCache {
+	private final Cache<String, OrderResponseDTO> completed;
+	private final ConcurrentHashMap<String, CompletableFuture<OrderResponseDTO>> inFlight = new ConcurrentHashMap<>();
+	private final long waitTimeoutMs;
+	
+	private final Counter replayed;
+	private final Counter collapsed;
+	private final Counter firstSeen;
+	
+	public IdempotencyFrontCache(MeterRegistry meterRegistry,
+	                             @Value("${app.idempotency.front-cache.max-size:100000}") long maxSize,
+	                             @Value("${app.idempotency.front-cache.ttl:1h}") Duration ttl,
+	                             @Value("${app.idempotency.front-cache.wait-timeout:10s}") Duration waitTimeout){
+		this.completed = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		this.waitTimeoutMs = waitTimeout.toMillis();
+		CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotencyKeys");
+		
+		// duplicate rate = (replayed + collapsed) / all
+		this.replayed = Counter.builder("orders.idempotency.requests")
+				.description("createOrder requests by how the idempotency key was resolved")
+				.tag("result", "replayed")
+				.register(meterRegistry);
+		this.collapsed = Counter.builder("orders.idempotency.requests")
+				.description("createOrder requests by how the idempotency key was resolved")
+				.tag("result", "collapsed")
+				.register(meterRegistry);
+		this.firstSeen = Counter.builder("orders.idempotency.requests")
+				.description("createOrder requests by how the idempotency key was resolved")
+				.tag("result", "first")
+				.register(meterRegistry);
+	}
+	
+	public OrderResponseDTO execute(String idempotencyKey, Supplier<OrderResponseDTO> action){
+		// 1. completed recently on this instance
+		OrderResponseDTO previous = completed.getIfPresent(idempotencyKey);
+		if (previous != null){
+			replayed.increment();
+			return previous;
+		}
+		
+		// 2. the same key is being processed right now, wait for its result
+		CompletableFuture<OrderResponseDTO> mine = new CompletableFuture<>();
+		CompletableFuture<OrderResponseDTO> running = inFlight.putIfAbsent(idempotencyKey, mine);
+		if (running != null){
+			collapsed.increment();
+			try {
+				return awaitFirst(running);
+			} catch (TimeoutException ex) {
+				// the first one is slow, carry on: the database check still catches the duplicate
+				log.warn("Gave up waiting for the in-flight request with idempotency key {}", idempotencyKey);
+				return action.get();
+			}
+		}
+		
+		// 3. first request for this key
+		firstSeen.increment();
+		try {
+			OrderResponseDTO result = action.get();
+			completed.put(idempotencyKey, result);
+			mine.complete(result);
+			return result;
+		} catch (RuntimeException ex) {
+			// waiters get the same error, nothing is remembered so a later retry runs again
+			mine.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			inFlight.remove(idempotencyKey, mine);
+		}
+	}
+	
+	private OrderResponseDTO awaitFirst(CompletableFuture<OrderResponseDTO> running) throws TimeoutException {
+		try {
+			return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CompletionException(ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause){
+				throw cause;
+			}
+			throw new CompletionException(ex.getCause());
+		}
+	}
+}
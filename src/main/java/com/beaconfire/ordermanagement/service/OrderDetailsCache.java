@@ -0,0 +1,194 @@
+package com.beaconfire.ordermanagement.service;
+
+import com.beaconfire.ordermanagement.dto.OrderDetailsDTO;
+import com.beaconfire.ordermanagement.dto.SectionStatus;
+import com.beaconfire.ordermanagement.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * @author luluxue
+ * @date 2026-01-25
+ */
+/*
+* cache for assembled OrderDetailsDTO responses, one entry per order
+* - local tier: Caffeine, always on
+* - remote tier: Redis, optional (app.order-details.cache.redis.enabled), shared by all instances
+* every entry carries the order's @Version and is only served for that version,
+* so a status change on any instance makes the old entry unreachable right away.
+* OrderEventHandler also evicts an order after each transition commits, to free the space.
+* terminal orders hardly change any more and are kept much longer than active ones,
+* but the payment and shipment sections come from other services, which can still update them
+* (late refunds, carrier corrections) without a new order version: entries holding either
+* are kept at most downstreamTtl.
+* */
+@Component
+@Slf4j
+public class OrderDetailsCache {
+	private static final String KEY_PREFIX = "order-details:";
+	
+	// no more transitions expected
+	private static final Set<OrderStatus> TERMINAL = EnumSet.of(
+			OrderStatus.DELIVERED,
+			OrderStatus.CANCELLED,
+			OrderStatus.RETURNED,
+			OrderStatus.PAYMENT_FAILED,
+			OrderStatus.INVENTORY_FAILED);
+	
+	private final Cache<String, CachedDetails> local;
+	private final StringRedisTemplate redis;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	private final Duration activeTtl;
+	private final Duration terminalTtl;
+	private final Duration downstreamTtl;
+	
+	public OrderDetailsCache(ObjectProvider<StringRedisTemplate> redisProvider,
+	                         ObjectMapper objectMapper,
+	                         MeterRegistry meterRegistry,
+	                         @Value("${app.order-details.cache.max-size:10000}") long maxSize,
+	                         @Value("${app.order-details.cache.active-ttl:30s}") Duration activeTtl,
+	                         @Value("${app.order-details.cache.terminal-ttl:1h}") Duration terminalTtl,
+	                         @Value("${app.order-details.cache.downstream-ttl:5m}") Duration downstreamTtl,
+	                         @Value("${app.order-details.cache.redis.enabled:false}") boolean redisEnabled){
+		this.redis = redisEnabled ? redisProvider.getIfAvailable() : null;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+		this.activeTtl = activeTtl;
+		this.terminalTtl = terminalTtl;
+		this.downstreamTtl = downstreamTtl;
+		
+		this.local = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new Expiry<String, CachedDetails>() {
+					@Override
+					public long expireAfterCreate(String orderId, CachedDetails entry, long currentTime){
+						return ttlOf(entry).toNanos();
+					}
+					
+					@Override
+					public long expireAfterUpdate(String orderId, CachedDetails entry, long currentTime, long currentDuration){
+						return ttlOf(entry).toNanos();
+					}
+					
+					@Override
+					public long expireAfterRead(String orderId, CachedDetails entry, long currentTime, long currentDuration){
+						return currentDuration;
+					}
+				})
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, local, "orderDetails");
+		
+		if (redisEnabled && redis == null){
+			log.warn("Redis tier for order details is enabled but no Redis connection is configured, using the local tier only");
+		}
+	}
+	
+	public Optional<OrderDetailsDTO> get(String orderId, Integer version){
+		// 1. local tier
+		CachedDetails entry = local.getIfPresent(orderId);
+		if (entry != null && entry.version().equals(version)){
+			return Optional.of(entry.details());
+		}
+		
+		// 2. remote tier, a hit is copied into the local tier
+		entry = readRemote(orderId);
+		if (entry != null && entry.version().equals(version)){
+			local.put(orderId, entry);
+			return Optional.of(entry.details());
+		}
+		return Optional.empty();
+	}
+	
+	// responses with a degraded section are not cached, the next request tries again
+	public void put(String orderId, Integer version, OrderDetailsDTO details){
+		if (version == null || details.getSections().values().stream().anyMatch(s -> s != SectionStatus.OK)){
+			return;
+		}
+		
+		CachedDetails entry = new CachedDetails(version, details.getOrder().getStatus(), details);
+		local.put(orderId, entry);
+		writeRemote(orderId, entry);
+	}
+	
+	public void evict(String orderId){
+		local.invalidate(orderId);
+		if (redis != null){
+			try {
+				redis.delete(KEY_PREFIX + orderId);
+			} catch (Exception ex) {
+				log.warn("Could not evict order {} from Redis: {}", orderId, ex.getMessage());
+			}
+		}
+	}
+	
+	// evict once the current transaction commits, so a concurrent read cannot put the old state back
+	public void evictAfterCommit(String orderId){
+		if (!TransactionSynchronizationManager.isSynchronizationActive()){
+			evict(orderId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit(){
+				evict(orderId);
+			}
+		});
+	}
+	
+	private Duration ttlOf(CachedDetails entry){
+		if (!TERMINAL.contains(entry.status())){
+			return activeTtl;
+		}
+		OrderDetailsDTO details = entry.details();
+		boolean hasDownstreamSections = details.getPayment() != null || details.getShipment() != null;
+		return hasDownstreamSections && downstreamTtl.compareTo(terminalTtl) < 0 ? downstreamTtl : terminalTtl;
+	}
+	
+	// Redis problems only turn into misses, the response is then built from the sources
+	private CachedDetails readRemote(String orderId){
+		if (redis == null){
+			return null;
+		}
+		try {
+			String json = redis.opsForValue().get(KEY_PREFIX + orderId);
+			meterRegistry.counter("order.details.cache.remote", "result", json == null ? "miss" : "hit").increment();
+			return json == null ? null : objectMapper.readValue(json, CachedDetails.class);
+		} catch (Exception ex) {
+			meterRegistry.counter("order.details.cache.remote", "result", "error").increment();
+			log.warn("Could not read order {} from Redis: {}", orderId, ex.getMessage());
+			return null;
+		}
+	}
+	
+	private void writeRemote(String orderId, CachedDetails entry){
+		if (redis == null){
+			return;
+		}
+		try {
+			redis.opsForValue().set(KEY_PREFIX + orderId, objectMapper.writeValueAsString(entry), ttlOf(entry));
+		} catch (Exception ex) {
+			log.warn("Could not write order {} to Redis: {}", orderId, ex.getMessage());
+		}
+	}
+	
+	record CachedDetails(Integer version, OrderStatus status, OrderDetailsDTO details) {
+	}
+}
@@ -31,19 +31,29 @@ public class OrderEventHandler {
 	private final NotificationEventPublisher notificationEventPublisher;
 	private final PaymentEventPublisher paymentEventPublisher;
 	private final OrderService orderService;
+	private final OrderDetailsCache orderDetailsCache;
 	
 	public OrderEventHandler(OrderRepository orderRepo,
 	                         ReturnedItemRepository returnedRepo,
 	                         InventoryEventPublisher inventoryEventPublisher,
 	                         NotificationEventPublisher notificationEventPublisher,
 	                         PaymentEventPublisher paymentEventPublisher,
-	                         OrderService orderService){
+	                         OrderService orderService,
+	                         OrderDetailsCache orderDetailsCache){
 		this.orderRepo = orderRepo;
 		this.returnedItemRepo = returnedRepo;
 		this.inventoryEventPublisher = inventoryEventPublisher;
 		this.notificationEventPublisher = notificationEventPublisher;
 		this.paymentEventPublisher = paymentEventPublisher;
 		this.orderService = orderService;
+		this.orderDetailsCache = orderDetailsCache;
+	}
+	
+	// every transition changes what GET /orders/{id} returns
+	private Order saveAndEvict(Order order){
+		Order savedOrder = orderRepo.save(order);
+		orderDetailsCache.evictAfterCommit(savedOrder.getId());
+		return savedOrder;
 	}
 	
 	public void handlePaymentConfirmed(PaymentConfirmedEvent event){
@@ -76,7 +86,7 @@ public class OrderEventHandler {
 		order.setPaymentTransactionId(event.getPaymentTransactionId());
 		order.setPaymentConfirmedAt(event.getConfirmedAt());
 		
-		Order savedOrder = orderRepo.save(order);
+		Order savedOrder = saveAndEvict(order);
 		log.info("Order {} status updated to PAYMENT_CONFIRMED", event.getOrderId());
 		
 		// 5. publish event to ProductService for inventoryReduction
@@ -103,7 +113,7 @@ public class OrderEventHandler {
 		order.setStatus(OrderStatus.PAYMENT_FAILED);
 		//order.setPaymentFailureReason(event.getFailedReason());
 		
-		orderRepo.save(order);
+		saveAndEvict(order);
 		log.warn("Order {} payment failed: {}", event.getOrderId());
 	}
 	
@@ -136,7 +146,7 @@ public class OrderEventHandler {
 			
 			// update the orderStatus
 			order.setStatus(OrderStatus.MANUAL_INTERVENTION_REQUIRED);
-			orderRepo.save(order);
+			saveAndEvict(order);
 			
 //			// send alert to DevOps
 //			alertService.notifyDevOps(event, e.getMessage());
@@ -163,7 +173,7 @@ public class OrderEventHandler {
 			
 			// update orderStatus
 			order.setStatus(OrderStatus.MANUAL_INTERVENTION_REQUIRED);
-			orderRepo.save(order);
+			saveAndEvict(order);
 			
 			throw new IllegalStateException("Refund failed but no returnedItemIds " +
 					"provided for order: " + event.getOrderId());
@@ -175,11 +185,13 @@ public class OrderEventHandler {
 				item.setReturnReason(item.getReturnReason() + " | Refund failed: " + event.getFailedReason());
 			}
 			returnedItemRepo.saveAll(items);
+			// the status may already be MANUAL_INTERVENTION_REQUIRED, the new version marks the item change
+			orderRepo.incrementVersion(order);
 			
 			// update orderStatus
 			// manual intervention
 			order.setStatus(OrderStatus.MANUAL_INTERVENTION_REQUIRED);
-			orderRepo.save(order);
+			saveAndEvict(order);
 		}
 		
 		// publish notification to admin
@@ -199,18 +211,18 @@ public class OrderEventHandler {
 		}
 		
 		// 2. update ReturnedItem status
-		updateReturnedItemsToCompleted(event);
+		updateReturnedItemsToCompleted(order, event);
 		
 		// 3. update order status
 		order.setStatus(OrderStatus.CANCELLED);
-		orderRepo.save(order);
+		saveAndEvict(order);
 		log.info("Order {} cancelled, refund completed", order.getId());
 	}
 	
 	private void handleReturnRefund(Order order, RefundCompletedEvent event) {
 		// check returnedItem list directly
 		// 1. update returnedItem status
-		updateReturnedItemsToCompleted(event);
+		updateReturnedItemsToCompleted(order, event);
 		
 		// 2. check if it's a full return
 		boolean isFullReturn = checkIfFullReturn(order);
@@ -228,7 +240,7 @@ public class OrderEventHandler {
 			}
 		}
 		
-		orderRepo.save(order);
+		saveAndEvict(order);
 		log.info("Order {} return refund completed, amount: {}",
 				event.getOrderId(), event.getRefundAmount());
 	}
@@ -237,8 +249,9 @@ public class OrderEventHandler {
 	* organize the common code in handleCancellationRefund and handleReturnRefund
 	* to update returnedItem status
 	* if returnedItemIds are empty, throw exception
+	* the order's version is bumped too, a partial return can leave its status as it was
 	* */
-	private void updateReturnedItemsToCompleted(RefundCompletedEvent event){
+	private void updateReturnedItemsToCompleted(Order order, RefundCompletedEvent event){
 		List<String> returnedItemIds = event.getReturnedItemIds();
 		
 		// 1. if no ids, this is critical error
@@ -273,6 +286,7 @@ public class OrderEventHandler {
 		}
 		
 		returnedItemRepo.saveAll(items);
+		orderRepo.incrementVersion(order);
 	}
 	
 	/*
@@ -313,7 +327,7 @@ public class OrderEventHandler {
 		order.setStatus(OrderStatus.CONFIRMED);
 		order.setOrderConfirmedAt(LocalDateTime.now());
 		
-		orderRepo.save(order);
+		saveAndEvict(order);
 		log.info("Order {} fully confirmed (payment + inventory)", event.getOrderId());
 		
 		// 5. send notification to user
@@ -348,7 +362,7 @@ public class OrderEventHandler {
 				true
 		);
 		
-		Order savedOrder = orderRepo.save(order);
+		Order savedOrder = saveAndEvict(order);
 //		orderRepo.flush(); // ensure the ID is re-assigned
 		
 		// 4. obtain returned ids
@@ -377,7 +391,7 @@ public class OrderEventHandler {
 		
 		// update order status
 		order.setStatus(OrderStatus.SHIPPED);
-		orderRepo.save(order);
+		saveAndEvict(order);
 		
 		// publish event to notificationService
 		notificationEventPublisher.publishOrderShippedNotificationEvent(order, event.getShippedAt());
@@ -399,7 +413,7 @@ public class OrderEventHandler {
 		
 		// update order status
 		order.setStatus(OrderStatus.DELIVERED);
-		orderRepo.save(order);
+		saveAndEvict(order);
 		
 		// publish event to notificationService
 		notificationEventPublisher.publishOrderDeliveredNotificationEvent(order, event.getDeliveredAt());
@@ -1,30 +1,59 @@
 package com.beaconfire.ordermanagement.service;
 
 import com.beaconfire.ordermanagement.client.payment.PaymentServiceClient;
+import com.beaconfire.ordermanagement.client.product.ProductCatalogCache;
 import com.beaconfire.ordermanagement.client.product.ProductServiceClient;
 import com.beaconfire.ordermanagement.client.shipment.ShipmentServiceClient;
 import com.beaconfire.ordermanagement.dto.*;
 import com.beaconfire.ordermanagement.entity.*;
 import com.beaconfire.ordermanagement.exception.*;
+import com.beaconfire.ordermanagement.repository.OrderQueryRepository;
 import com.beaconfire.ordermanagement.repository.OrderRepository;
 import com.beaconfire.ordermanagement.repository.ReturnedItemRepository;
 import com.beaconfire.ordermanagement.service.publisher.InventoryEventPublisher;
 import com.beaconfire.ordermanagement.service.publisher.NotificationEventPublisher;
 import com.beaconfire.ordermanagement.service.publisher.PaymentEventPublisher;
+import com.beaconfire.ordermanagement.service.support.Deadline;
+import com.beaconfire.ordermanagement.service.support.DownstreamCallRunner;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.lang.IllegalStateException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -35,54 +64,138 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 public class OrderService {
-	private final Executor executor;
+	private final DownstreamCallRunner callRunner;
+	private final Executor placementExecutor;
 	private final OrderRepository orderRepo;
+	private final OrderQueryRepository orderQueryRepo;
 	private final ReturnedItemRepository returnedItemRepo;
 	private final InventoryEventPublisher inventoryEventPublisher;
 	private final NotificationEventPublisher notificationEventPublisher;
 	private final PaymentEventPublisher paymentEventPublisher;
 	private final ProductServiceClient productClient;
+	private final ProductCatalogCache productCatalog;
+	private final OrderDetailsCache orderDetailsCache;
+	private final IdempotencyFrontCache idempotencyFrontCache;
 	private final PaymentServiceClient paymentClient;
 	private final ShipmentServiceClient shipmentClient;
 	
+	// bound concurrent calls per downstream in the getOrderDetails fan-out
+	private final Bulkhead productBulkhead;
+	private final Bulkhead paymentBulkhead;
+	private final Bulkhead shipmentBulkhead;
+	// budget for the whole getOrderDetails fan-out
+	private final Duration detailsTimeout;
+	private final MeterRegistry meterRegistry;
+	// getOrderDetails lookups in flight, by order id
+	private final ConcurrentHashMap<String, CompletableFuture<OrderDetailsDTO>> detailsInFlight = new ConcurrentHashMap<>();
+	private final Counter detailsCollapsedCounter;
 	
-	public OrderService(Executor executor,
+	// createOrder runs its stages with explicit, short transactions
+	private final TransactionTemplate readOnlyTx;
+	private final TransactionTemplate writeTx;
+	private final Timer lookupConnectionTimer;
+	private final Timer writeConnectionTimer;
+	private final Timer pricingTimer;
+	
+	// async placement: orders in the placement stage, and when an unfinished one is given up
+	private final Semaphore placementPermits;
+	private final Duration placementStaleAfter;
+	
+	
+	public OrderService(DownstreamCallRunner callRunner,
+	                    @Qualifier("orderPlacementExecutor") Executor placementExecutor,
 	                    OrderRepository orderRepo,
+	                    OrderQueryRepository orderQueryRepo,
 	                    ReturnedItemRepository returnedItemRepo,
 	                    InventoryEventPublisher inventoryEventPublisher,
 	                    NotificationEventPublisher notificationEventPublisher,
 	                    PaymentEventPublisher paymentEventPublisher,
 	                    ProductServiceClient productClient,
+	                    ProductCatalogCache productCatalog,
+	                    OrderDetailsCache orderDetailsCache,
+	                    IdempotencyFrontCache idempotencyFrontCache,
 	                    PaymentServiceClient paymentClient,
-	                    ShipmentServiceClient shipmentClient){
-		this.executor = executor;
+	                    ShipmentServiceClient shipmentClient,
+	                    PlatformTransactionManager transactionManager,
+	                    MeterRegistry meterRegistry,
+	                    BulkheadRegistry bulkheadRegistry,
+	                    @Value("${app.order-details.timeout:3s}") Duration detailsTimeout,
+	                    @Value("${app.order-placement.max-in-flight:1000}") int maxPlacementsInFlight,
+	                    @Value("${app.order-placement.stale-after:10m}") Duration placementStaleAfter){
+		this.callRunner = callRunner;
+		this.placementExecutor = placementExecutor;
 		this.orderRepo = orderRepo;
+		this.orderQueryRepo = orderQueryRepo;
 		this.returnedItemRepo = returnedItemRepo;
 		this.inventoryEventPublisher = inventoryEventPublisher;
 		this.notificationEventPublisher = notificationEventPublisher;
 		this.paymentEventPublisher = paymentEventPublisher;
 		this.productClient = productClient;
+		this.productCatalog = productCatalog;
+		this.orderDetailsCache = orderDetailsCache;
+		this.idempotencyFrontCache = idempotencyFrontCache;
 		this.paymentClient = paymentClient;
 		this.shipmentClient = shipmentClient;
+		
+		this.productBulkhead = bulkheadRegistry.bulkhead("productService");
+		this.paymentBulkhead = bulkheadRegistry.bulkhead("paymentService");
+		this.shipmentBulkhead = bulkheadRegistry.bulkhead("shipmentService");
+		this.detailsTimeout = detailsTimeout;
+		this.placementPermits = new Semaphore(maxPlacementsInFlight);
+		this.placementStaleAfter = placementStaleAfter;
+		this.meterRegistry = meterRegistry;
+		this.detailsCollapsedCounter = Counter.builder("order.details.collapsed")
+				.description("getOrderDetails requests that joined a lookup already in flight for the same order")
+				.register(meterRegistry);
+		Gauge.builder("order.details.in.flight", detailsInFlight, Map::size)
+				.description("Orders with a getOrderDetails lookup in flight")
+				.register(meterRegistry);
+		
+		this.readOnlyTx = new TransactionTemplate(transactionManager);
+		this.readOnlyTx.setReadOnly(true);
+		this.writeTx = new TransactionTemplate(transactionManager);
+		
+		// time a JDBC connection is held per order, split by stage
+		this.lookupConnectionTimer = Timer.builder("orders.create.connection.held")
+				.description("Time a database connection is held while placing an order")
+				.tag("stage", "lookup")
+				.register(meterRegistry);
+		this.writeConnectionTimer = Timer.builder("orders.create.connection.held")
+				.description("Time a database connection is held while placing an order")
+				.tag("stage", "write")
+				.register(meterRegistry);
+		this.pricingTimer = Timer.builder("orders.create.pricing")
+				.description("Time spent on remote product calls, without a database connection")
+				.register(meterRegistry);
 	}
 	
 	// 1. place an order
-	@Transactional
+	// the stages are kept apart so that no JDBC connection is pinned during remote I/O:
+	//   stage 1: short read-only transaction for the idempotency lookup
+	//   stage 2: product pricing over Feign, outside any transaction
+	//   stage 3: short write transaction that only persists the order
 	public OrderResponseDTO createOrder(OrderRequestDTO orderRequestDto){
 		// !!!! check idempotency
+		// retries and concurrent duplicates are answered in memory when possible
+		return idempotencyFrontCache.execute(orderRequestDto.getIdempotencyKey(),
+				() -> placeOrder(orderRequestDto));
+	}
+	
+	private OrderResponseDTO placeOrder(OrderRequestDTO orderRequestDto){
 		String clientKey = orderRequestDto.getIdempotencyKey();
-		Optional<Order> existing = orderRepo.findByIdempotencyKey(clientKey);
+		Optional<OrderResponseDTO> existing = findExistingOrder(clientKey);
 		
 		if (existing.isPresent()){
 			// unwrap data from Optional
-			return OrderMapper.toResponseDTO(existing.get());
+			meterRegistry.counter("orders.idempotency.duplicates", "detected_by", "lookup").increment();
+			return existing.get();
 		}
 		
 		// init items and subtotal
 		
 		// 1. fetch prices, calculate subtotals, and build OrderItem
-		// 1.1 build OrderItem
-		List<OrderItem> items = buildOrderItems(orderRequestDto.getItems());
+		// 1.1 build OrderItem (remote calls, no connection held)
+		List<OrderItem> items = pricingTimer.record(() -> buildOrderItems(orderRequestDto.getItems()));
 		
 		// 1.2 calculate the amount
 		BigDecimal grandTotal = calculateGrandTotal(items);
@@ -103,93 +216,335 @@ public class OrderService {
 			item.setOrder(newOrder);
 		}
 		
-		// save the newOrder
-		Order savedOrder = orderRepo.save(newOrder);
+		// save the newOrder, the events go to the outbox in the same transaction
+		Order savedOrder;
+		try {
+			savedOrder = inTransaction(writeTx, writeConnectionTimer, status -> {
+				Order saved = orderRepo.save(newOrder);
+				
+				// 4. publish event for payment request
+				paymentEventPublisher.publishPaymentRequestEvent(saved, orderRequestDto.getPaymentMethodToken());
+				
+				// 5. send an event to productService to reduce the inventory
+				inventoryEventPublisher.publishInventoryReductionEvent(saved);
+				
+				// 6. send an event to NotificationService for orderPlaced email
+				notificationEventPublisher.publishOrderPlacedNotificationEvent(saved);
+				
+				return saved;
+			});
+		} catch (DataIntegrityViolationException ex) {
+			// a concurrent request with the same key won the race on the unique constraint
+			meterRegistry.counter("orders.idempotency.duplicates", "detected_by", "constraint").increment();
+			return findExistingOrder(clientKey).orElseThrow(() -> ex);
+		}
 		
-		// 4. publish event for payment request
-		paymentEventPublisher.publishPaymentRequestEvent(savedOrder, orderRequestDto.getPaymentMethodToken());
+		return OrderMapper.toResponseDTO(savedOrder);
+	}
+	
+	/*
+	* 1.1 accept an order and place it in the background (POST /api/v1/orders/async)
+	* only the idempotency check and one small insert happen on the request thread:
+	* the order is stored as PROCESSING and priced, written and published by the placement stage.
+	* at most max-in-flight orders are in the stage, above that the request is refused with 503
+	* before anything is written, so a retry with the same key starts clean.
+	* if the stage still refuses the order (executor shutting down), the inserted row is deleted
+	* again for the same reason.
+	* */
+	public OrderPlacementStatusDTO acceptOrder(OrderRequestDTO orderRequestDto){
+		String clientKey = orderRequestDto.getIdempotencyKey();
+		Optional<OrderPlacementStatusDTO> existing = findExistingPlacement(clientKey);
+		if (existing.isPresent()){
+			return existing.get();
+		}
 		
-		// 5. send an event to productService to reduce the inventory
-		inventoryEventPublisher.publishInventoryReductionEvent(savedOrder);
+		if (!placementPermits.tryAcquire()){
+			meterRegistry.counter("orders.placement", "result", "busy").increment();
+			throw new OrderPlacementBusyException("Too many orders are being placed, please retry shortly");
+		}
 		
-		// 6. send an event to NotificationService for orderPlaced email
-		notificationEventPublisher.publishOrderPlacedNotificationEvent(savedOrder);
+		Order accepted;
+		try {
+			accepted = inTransaction(writeTx, writeConnectionTimer, status -> orderRepo.save(Order.builder()
+					.userId(orderRequestDto.getUserId())
+					.items(new ArrayList<>())
+					.status(OrderStatus.PROCESSING)
+					.createdAt(LocalDateTime.now())
+					.idempotencyKey(clientKey)
+					.build()));
+		} catch (DataIntegrityViolationException ex) {
+			placementPermits.release();
+			return findExistingPlacement(clientKey).orElseThrow(() -> ex);
+		} catch (RuntimeException ex) {
+			placementPermits.release();
+			throw ex;
+		}
 		
-		return OrderMapper.toResponseDTO(savedOrder);
+		String orderId = accepted.getId();
+		try {
+			placementExecutor.execute(() -> completePlacement(orderId, orderRequestDto));
+		} catch (RejectedExecutionException ex) {
+			// the executor queue is full, same answer as running out of permits
+			placementPermits.release();
+			withdrawPlacement(orderId);
+			meterRegistry.counter("orders.placement", "result", "busy").increment();
+			throw new OrderPlacementBusyException("Too many orders are being placed, please retry shortly");
+		} catch (RuntimeException ex) {
+			placementPermits.release();
+			withdrawPlacement(orderId);
+			throw ex;
+		}
+		return toPlacementStatus(accepted);
+	}
+	
+	public OrderPlacementStatusDTO getPlacementStatus(String orderId){
+		return inTransaction(readOnlyTx, lookupConnectionTimer,
+				status -> orderRepo.findById(orderId).map(this::toPlacementStatus))
+				.orElseThrow(() -> new OrderNotFoundException(orderId));
+	}
+	
+	// the placement stage: same steps as createOrder, on the placement executor
+	private void completePlacement(String orderId, OrderRequestDTO orderRequestDto){
+		try {
+			// 1. fetch prices and build OrderItem (remote calls, no connection held)
+			List<OrderItem> items;
+			try {
+				items = pricingTimer.record(() -> buildOrderItems(orderRequestDto.getItems()));
+			} catch (InventoryNotAvailableException | ProductNotFoundException ex) {
+				rejectPlacement(orderId, ex.getMessage());
+				return;
+			}
+			BigDecimal grandTotal = calculateGrandTotal(items);
+			
+			// 2. fill in the accepted order, the events go to the outbox in the same transaction
+			Order placed = inTransaction(writeTx, writeConnectionTimer, status -> {
+				Order order = orderRepo.findById(orderId)
+						.orElseThrow(() -> new OrderNotFoundException(orderId));
+				// rejected as stale in the meantime
+				if (order.getStatus() != OrderStatus.PROCESSING){
+					return null;
+				}
+				
+				for (OrderItem item: items){
+					item.setOrder(order);
+					order.getItems().add(item);
+				}
+				order.setTotalAmount(grandTotal);
+				order.setStatus(OrderStatus.PENDING);
+				Order saved = orderRepo.save(order);
+				
+				paymentEventPublisher.publishPaymentRequestEvent(saved, orderRequestDto.getPaymentMethodToken());
+				inventoryEventPublisher.publishInventoryReductionEvent(saved);
+				notificationEventPublisher.publishOrderPlacedNotificationEvent(saved);
+				return saved;
+			});
+			
+			if (placed != null){
+				orderDetailsCache.evict(orderId);
+				meterRegistry.counter("orders.placement", "result", "placed").increment();
+			}
+		} catch (Exception ex) {
+			log.error("Placement of order {} failed", orderId, ex);
+			rejectPlacement(orderId, "Order could not be placed, please try again");
+		} finally {
+			placementPermits.release();
+		}
+	}
+	
+	private void rejectPlacement(String orderId, String reason){
+		try {
+			writeTx.executeWithoutResult(status -> orderRepo.findById(orderId)
+						.filter(order -> order.getStatus() == OrderStatus.PROCESSING)
+						.ifPresent(order -> {
+							order.setStatus(OrderStatus.REJECTED);
+							order.setFailureReason(reason);
+							orderRepo.save(order);
+						}));
+			orderDetailsCache.evict(orderId);
+			meterRegistry.counter("orders.placement", "result", "rejected").increment();
+			log.warn("Order {} rejected: {}", orderId, reason);
+		} catch (Exception ex) {
+			// left PROCESSING, the stale placement sweep rejects it later
+			log.error("Could not reject order {}", orderId, ex);
+		}
+	}
+	
+	/*
+	* take back an accepted order that never reached the placement stage
+	* deleted instead of rejected: a retry with the same key must not get the rejection back
+	* */
+	private void withdrawPlacement(String orderId){
+		try {
+			writeTx.executeWithoutResult(status -> orderRepo.findById(orderId)
+						.filter(order -> order.getStatus() == OrderStatus.PROCESSING)
+						.ifPresent(orderRepo::delete));
+			orderDetailsCache.evict(orderId);
+			log.warn("Order {} could not be queued for placement and was withdrawn", orderId);
+		} catch (Exception ex) {
+			// left PROCESSING, the stale placement sweep rejects it later
+			log.error("Could not withdraw order {}", orderId, ex);
+		}
+	}
+	
+	// orders accepted by an instance that stopped before placing them
+	@Scheduled(fixedDelayString = "${app.order-placement.sweep-interval-ms:60000}")
+	public void rejectStalePlacements(){
+		int rejected = writeTx.execute(status -> orderRepo.rejectStalePlacements(
+				OrderStatus.PROCESSING,
+				OrderStatus.REJECTED,
+				"Order placement was interrupted, please place the order again",
+				LocalDateTime.now().minus(placementStaleAfter)));
+		if (rejected > 0){
+			log.warn("Rejected {} stale order placements", rejected);
+		}
+	}
+	
+	private Optional<OrderPlacementStatusDTO> findExistingPlacement(String idempotencyKey){
+		return inTransaction(readOnlyTx, lookupConnectionTimer,
+				status -> orderRepo.findByIdempotencyKey(idempotencyKey).map(this::toPlacementStatus));
+	}
+	
+	private OrderPlacementStatusDTO toPlacementStatus(Order order){
+		return OrderPlacementStatusDTO.builder()
+				.orderId(order.getId())
+				.status(order.getStatus())
+				.totalAmount(order.getTotalAmount())
+				.failureReason(order.getFailureReason())
+				.statusUrl("/api/v1/orders/" + order.getId() + "/status")
+				.build();
+	}
+	
+	// map inside the transaction: the items collection is lazy
+	private Optional<OrderResponseDTO> findExistingOrder(String idempotencyKey){
+		return inTransaction(readOnlyTx, lookupConnectionTimer,
+				status -> orderRepo.findByIdempotencyKey(idempotencyKey).map(OrderMapper::toResponseDTO));
+	}
+	
+	// the connection is taken when the transaction begins and released on commit/rollback
+	private <T> T inTransaction(TransactionTemplate tx, Timer connectionTimer, TransactionCallback<T> action){
+		Timer.Sample sample = Timer.start();
+		try {
+			return tx.execute(action);
+		} finally {
+			sample.stop(connectionTimer);
+		}
 	}
 	
 	// 2. get order details
+	/*
+	* single-flight: concurrent requests for the same order share one in-flight lookup,
+	* e.g. the frontend polling right after checkout. each caller gets its own copy of the
+	* shared future, so one caller cancelling (client gone) does not cancel it for the others.
+	* */
 	public CompletableFuture<OrderDetailsDTO> getOrderDetails(String orderId){
-		// 1. fetch the entity using Optional - prevent NullPointerException
-		CompletableFuture<OrderResponseDTO> orderCF = CompletableFuture.supplyAsync(
-				() -> {
-					Order order = orderRepo.findByIdWithItems(orderId)
-							.orElseThrow(() -> new OrderNotFoundException(orderId));
-					// 2. convert the entity to a ResponseDTO for external transfer
-					return OrderMapper.toResponseDTO(order);
-				}, executor);
+		CompletableFuture<OrderDetailsDTO> mine = new CompletableFuture<>();
+		CompletableFuture<OrderDetailsDTO> running = detailsInFlight.putIfAbsent(orderId, mine);
+		if (running != null){
+			detailsCollapsedCounter.increment();
+			return running.copy();
+		}
+		
+		try {
+			lookupOrderDetails(orderId).whenComplete((details, ex) -> {
+				// remove first, callers arriving after completion start a fresh lookup
+				detailsInFlight.remove(orderId, mine);
+				if (ex == null){
+					mine.complete(details);
+				} else {
+					mine.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				}
+			});
+		} catch (RuntimeException ex) {
+			detailsInFlight.remove(orderId, mine);
+			mine.completeExceptionally(ex);
+		}
+		return mine.copy();
+	}
+	
+	/*
+	* a cheap version lookup first, the full fan-out only runs when the cache has nothing current
+	* the version query already counts against the deadline: a slow database gives up on it
+	* (and interrupts the worker) when the deadline passes, the fan-out gets what is left
+	* */
+	private CompletableFuture<OrderDetailsDTO> lookupOrderDetails(String orderId){
+		Deadline deadline = Deadline.after(detailsTimeout);
+		Queue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+		
+		return callRunner.call(() -> orderRepo.findVersionById(orderId)
+						.orElseThrow(() -> new OrderNotFoundException(orderId)), inFlight)
+				.orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+				.thenCompose(version -> orderDetailsCache.get(orderId, version)
+						.map(CompletableFuture::completedFuture)
+						.orElseGet(() -> loadOrderDetails(orderId, deadline, inFlight)
+								.thenApply(details -> {
+									orderDetailsCache.put(orderId, version, details);
+									return details;
+								})));
+	}
+	
+	/*
+	* fan out to the database and the downstream services under one deadline
+	* - every downstream call gets what is left of the deadline as its Feign timeout
+	* - a section that misses the deadline or fails gets its fallback value and a status in
+	*   OrderDetailsDTO.sections, the order itself is the only mandatory section
+	* - if the order cannot be loaded in time, everything still running is cancelled
+	* */
+	private CompletableFuture<OrderDetailsDTO> loadOrderDetails(String orderId, Deadline deadline,
+	                                                            Queue<CompletableFuture<?>> inFlight){
+		Map<String, SectionStatus> sections = new ConcurrentHashMap<>();
+		
+		// 1. fetch the order as a ResponseDTO using Optional - prevent NullPointerException
+		// the projection query builds the DTO directly, no entity is loaded
+		CompletableFuture<OrderResponseDTO> orderCF = callRunner.call(
+				() -> orderQueryRepo.findOrderResponse(orderId)
+						.orElseThrow(() -> new OrderNotFoundException(orderId)), inFlight);
 		
 		// retrieve all returnedItems info
-		CompletableFuture<List<ReturnedItemResponseDTO>> returnsCF = CompletableFuture.supplyAsync(
-				() -> {
-					List<ReturnedItem> items = returnedItemRepo.findAllByOrderId(orderId);
-					return items.stream()
-							.map(OrderMapper::toReturnedItemResponseDTO)
-							.toList();
-				}, executor);
-		
-		// retrieve product info
+		CompletableFuture<List<ReturnedItemResponseDTO>> returnsCF = withinDeadline("returns",
+				callRunner.call(() -> orderQueryRepo.findReturnedItemResponses(orderId), inFlight),
+				deadline, sections, Collections::emptyList);
+		
+		// retrieve product info, cached products do not leave the JVM
 		CompletableFuture<Map<String,ProductResponseDTO>> productsCF = orderCF.thenCompose(orderDTO -> {
 			List<String> productIds = orderDTO.getItems().stream()
 					.map(OrderItemResponseDTO::getProductId)
 					.distinct()
 					.toList();
 			
-			return CompletableFuture.supplyAsync(() -> {
-						List<ProductResponseDTO> products = productClient.getProductsByIds(productIds);
-						
-						return products.stream()
-								.collect(Collectors.toMap(ProductResponseDTO::getProductId, p-> p));
-					}, executor)
-					.exceptionally(ex -> {
-						log.error("Product bulk fetch failed", ex);
-						return Collections.emptyMap();
-					});
+			return withinDeadline("products",
+					callRunner.hedgedCall(() -> productBulkhead.executeSupplier(
+							() -> productCatalog.getProducts(productIds, deadline.toFeignOptions())), deadline, inFlight),
+					deadline, sections, Collections::emptyMap);
 		});
 		
-		
 		// retrieve payment info
-		CompletableFuture<PaymentResponseDTO> paymentCF = CompletableFuture.supplyAsync(
-				() -> paymentClient.getPaymentByOrder(orderId), executor)
-				.exceptionally(ex -> {
-					log.error("Payment service is down: {}", ex.getMessage());
-					return PaymentResponseDTO.builder()
-							.status("UNKNOWN")
-							.paymentTransactionId("N/A")
-							.error(new ErrorResponseDTO(
-									"PAYMENT_SERVICE_UNAVAILABLE",
-									"payment information is unavailable",
-									"EXTERNAL_API_ERROR"))
-							.build();
-				});
-				
+		CompletableFuture<PaymentResponseDTO> paymentCF = withinDeadline("payment",
+				callRunner.hedgedCall(() -> paymentBulkhead.executeSupplier(
+						() -> paymentClient.getPaymentByOrder(orderId, deadline.toFeignOptions())), deadline, inFlight),
+				deadline, sections,
+				() -> PaymentResponseDTO.builder()
+						.status("UNKNOWN")
+						.paymentTransactionId("N/A")
+						.error(new ErrorResponseDTO(
+								"PAYMENT_SERVICE_UNAVAILABLE",
+								"payment information is unavailable",
+								"EXTERNAL_API_ERROR"))
+						.build());
 		
 		// retrieve shipment info
-		CompletableFuture<ShipmentResponseDTO> shipmentCF = CompletableFuture.supplyAsync(
-						() -> shipmentClient.getShipmentInfo(orderId), executor)
-				.exceptionally(ex -> {
-							log.error("Shipment service is down: {}", ex.getMessage());
-					return ShipmentResponseDTO.builder()
-							.trackingNumber("N/A")
-							.carrier("N/A")
-							.status("INFORMATION_UNAVAILABLE")
-							.estimatedArrival(null)
-							.build();
-				});
-				
-		
-		// aggregate all result
-		return CompletableFuture.allOf(orderCF, returnsCF, paymentCF, shipmentCF)
+		CompletableFuture<ShipmentResponseDTO> shipmentCF = withinDeadline("shipment",
+				callRunner.hedgedCall(() -> shipmentBulkhead.executeSupplier(
+						() -> shipmentClient.getShipmentInfo(orderId, deadline.toFeignOptions())), deadline, inFlight),
+				deadline, sections,
+				() -> ShipmentResponseDTO.builder()
+						.trackingNumber("N/A")
+						.carrier("N/A")
+						.status("INFORMATION_UNAVAILABLE")
+						.estimatedArrival(null)
+						.build());
+		
+		// aggregate all result, every optional section completes by the deadline on its own
+		return CompletableFuture.allOf(orderCF, returnsCF, productsCF, paymentCF, shipmentCF)
 				.thenApply(v -> {
 						OrderResponseDTO orderData = orderCF.join();
 						List<ReturnedItemResponseDTO> returnData = returnsCF.join();
@@ -207,25 +562,91 @@ public class OrderService {
 						// put return record into order
 						orderData.setReturnedItems(returnData);
 						
-						return new OrderDetailsDTO(
-								orderData,
-								paymentCF.join(),
-								shipmentCF.join()
-						);
+						return OrderDetailsDTO.builder()
+								.order(orderData)
+								.payment(paymentCF.join())
+								.shipment(shipmentCF.join())
+								.sections(new TreeMap<>(sections))
+								.build();
 				})
-				.orTimeout(3, TimeUnit.SECONDS);
+				.orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+				.whenComplete((details, ex) -> {
+					// nobody is waiting for the other sections any more
+					if (ex != null){
+						inFlight.forEach(call -> call.cancel(true));
+					}
+				});
 		
 	}
 	
+	// give a section what is left of the deadline, fall back and record why if it does not make it
+	private <T> CompletableFuture<T> withinDeadline(String section, CompletableFuture<T> call, Deadline deadline,
+	                                                Map<String, SectionStatus> sections, Supplier<T> fallback){
+		return call.orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+				.handle((value, ex) -> {
+					if (ex == null){
+						sections.put(section, SectionStatus.OK);
+						return value;
+					}
+					
+					Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+					SectionStatus status = cause instanceof TimeoutException ? SectionStatus.TIMEOUT : SectionStatus.UNAVAILABLE;
+					sections.put(section, status);
+					meterRegistry.counter("order.details.sections.degraded", "section", section, "status", status.name())
+							.increment();
+					log.error("Order details section {} is {}: {}", section, status, cause.toString());
+					return fallback.get();
+				});
+	}
+	
 	// 3. get all orders (history)
 	// with pagination, size, sorting order
 	public Page<OrderResponseDTO> getAll(Pageable pageable){
-		// 1. repo returns a Page<Order>
-		Page<Order> orderPage = orderRepo.findAllWithItems(pageable);
+		// 1. repo returns a Page of order ids only
+		Page<String> idPage = orderRepo.findPageOfIds(pageable);
+		
+		// 2. fetch the orders with their items for this page
+		// and wrap them in a Page<OrderResponseDTO>
+		List<OrderResponseDTO> orders = findOrdersWithItems(idPage.getContent());
+		return new PageImpl<>(orders, pageable, idPage.getTotalElements());
+	}
+	
+	// 3.1 get all orders with keyset pagination (newest first)
+	// cursor: the last order of the previous slice, null for the first slice
+	public Slice<OrderResponseDTO> getAllAfter(OrderCursor cursor, int size){
+		// fetch one extra id to know if there is a next slice, without a count query
+		Pageable limit = PageRequest.of(0, size + 1);
+		List<String> ids = cursor == null
+				? orderRepo.findFirstIds(limit)
+				: orderRepo.findIdsBefore(cursor.getCreatedAt(), cursor.getOrderId(), limit);
+		
+		boolean hasNext = ids.size() > size;
+		if (hasNext){
+			ids = ids.subList(0, size);
+		}
+		
+		return new SliceImpl<>(findOrdersWithItems(ids), PageRequest.of(0, size), hasNext);
+	}
+	
+	// 3.2 order history of one customer (newest first), summaries only
+	public Slice<OrderSummaryDTO> getUserOrderHistory(String userId, OrderCursor cursor, int size){
+		Pageable limit = PageRequest.of(0, size + 1);
+		List<OrderSummaryDTO> summaries = cursor == null
+				? orderRepo.findFirstSummariesByUserId(userId, limit)
+				: orderRepo.findSummariesByUserIdBefore(userId, cursor.getCreatedAt(), cursor.getOrderId(), limit);
+		
+		boolean hasNext = summaries.size() > size;
+		if (hasNext){
+			summaries = summaries.subList(0, size);
+		}
 		
-		// 2. map the contents of the Page<Order> to Page<OrderResponseDTO>
-		// map contents of Page<Order> to Page<OrderResponseDTO>
-		return orderPage.map(order -> OrderMapper.toResponseDTO(order));
+		return new SliceImpl<>(summaries, PageRequest.of(0, size), hasNext);
+	}
+	
+	// phase 2 of the paginated queries, keeps the order of the ids
+	// the projection query builds the DTOs directly, no entity is loaded
+	private List<OrderResponseDTO> findOrdersWithItems(List<String> orderIds){
+		return orderQueryRepo.findOrderResponses(orderIds);
 	}
 	
 	// 3. cancel an order
@@ -329,24 +750,26 @@ public class OrderService {
 	}
 	
 	// code cleaning
-	private List<OrderItem> buildOrderItems(List<ItemQuantityDTO> orderItemDto){
-		List<OrderItem> orderItems = new ArrayList<>();
+	// resolves availability and price for the whole basket in two bulk calls
+	// instead of two Feign calls per line item
+	// package-private for OrderPlacementBenchmark (src/jmh/java)
+	List<OrderItem> buildOrderItems(List<ItemQuantityDTO> orderItemDto){
+		// 1a. check Inventory/availability for every line (one bulk Feign call)
+		//     the same product can appear on several lines, so check the summed quantity
+		Map<String, Integer> requestedQuantities = new LinkedHashMap<>();
+		for (ItemQuantityDTO itemRequest: orderItemDto){
+			requestedQuantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+		}
+		checkAvailability(requestedQuantities);
+		
+		// 1b. Fetch details for financial snapshots (one bulk Feign call)
+		Map<String, ProductResponseDTO> productDetailsMap = fetchProductDetails(requestedQuantities.keySet());
+		
+		List<OrderItem> orderItems = new ArrayList<>(orderItemDto.size());
 		for (ItemQuantityDTO itemRequest: orderItemDto){
 			String productId = itemRequest.getProductId();
 			Integer quantity = itemRequest.getQuantity();
-			
-			// 1a. check Inventory/availability (synchronous Feign call)
-			if (!productClient.isProductAvailable(productId, quantity)) {
-				throw new InventoryNotAvailableException("Sorry, the inventory of this product is not available right now.");
-			}
-			
-			// 1b. Fetch details for financial snapshots (synch Feign call
-			ProductResponseDTO productDetails;
-			try {
-				productDetails = productClient.getProductDetails(productId);
-			} catch (Exception ex) {
-				throw new ProductNotFoundException("Could not retrieve details for this product: " + productId);
-			}
+			ProductResponseDTO productDetails = productDetailsMap.get(productId);
 			
 			// 1c. Financial Calculation
 			BigDecimal unitPrice = productDetails.getUnitPrice();
@@ -367,7 +790,48 @@ public class OrderService {
 		return orderItems;
 	}
 	
-	private BigDecimal calculateGrandTotal(List<OrderItem> orderItems){
+	// fail the whole order if any line is unavailable
+	private void checkAvailability(Map<String, Integer> requestedQuantities){
+		List<ItemQuantityDTO> itemsToCheck = requestedQuantities.entrySet().stream()
+				.map(entry -> new ItemQuantityDTO(entry.getKey(), entry.getValue()))
+				.toList();
+		
+		List<ProductAvailabilityDTO> availability = productClient.checkAvailability(itemsToCheck);
+		Set<String> availableIds = new HashSet<>();
+		if (availability != null){
+			for (ProductAvailabilityDTO productAvailability: availability){
+				if (productAvailability.isAvailable()){
+					availableIds.add(productAvailability.getProductId());
+				}
+			}
+		}
+		
+		// a product missing from the response counts as unavailable
+		if (!availableIds.containsAll(requestedQuantities.keySet())) {
+			throw new InventoryNotAvailableException("Sorry, the inventory of this product is not available right now.");
+		}
+	}
+	
+	private Map<String, ProductResponseDTO> fetchProductDetails(Collection<String> productIds){
+		// served by the local product cache, misses go to product-service in one bulk call
+		Map<String, ProductResponseDTO> productDetailsMap;
+		try {
+			productDetailsMap = productCatalog.getProducts(productIds);
+		} catch (Exception ex) {
+			throw new ProductNotFoundException("Could not retrieve details for products: " + productIds);
+		}
+		
+		for (String productId: productIds){
+			if (!productDetailsMap.containsKey(productId)){
+				throw new ProductNotFoundException("Could not retrieve details for this product: " + productId);
+			}
+		}
+		
+		return productDetailsMap;
+	}
+	
+	// package-private for OrderPlacementBenchmark (src/jmh/java)
+	BigDecimal calculateGrandTotal(List<OrderItem> orderItems){
 		BigDecimal grandTotal = BigDecimal.ZERO;
 		for (OrderItem item: orderItems){
 			grandTotal = grandTotal.add(item.getSubtotal()); // function of BigDecimal
@@ -385,6 +849,14 @@ public class OrderService {
 		if (status == OrderStatus.CANCELLED){
 			throw new IllegalStateException("Order ID " + order.getId() + "cannot be cancelled as it has already cancelled.");
 		}
+		
+		// an async placement that is still being placed has no items or payment yet,
+		// and completePlacement would silently drop the placement once it is no longer PROCESSING.
+		// a REJECTED placement was never placed, there is nothing to cancel
+		if (status == OrderStatus.PROCESSING || status == OrderStatus.REJECTED){
+			throw new IllegalStateException("Order ID " + order.getId() + " cannot be cancelled while its placement is "
+					+ status + ", check GET /api/v1/orders/" + order.getId() + "/status");
+		}
 	}
 	
 	/*
@@ -433,7 +905,9 @@ public class OrderService {
 			orderItem.addReturnedItem(returnedItem);
 		}
 		
-		return returnedItems;
+		// 5. persist them together: OrderItem does not cascade to its returned items,
+		// the ids are assigned here (callers publish them) and the rows are flushed as one batch
+		return returnedItemRepo.saveAll(returnedItems);
 	}
 	
 	private void validateReturnEligibility(Order order){
@@ -443,8 +917,9 @@ public class OrderService {
 		}
 	}
 	
-	private boolean validateReturnItems(Order order,
-	                                   ReturnOrderRequestDTO requestDto){
+	// package-private for OrderReturnBenchmark (src/jmh/java)
+	boolean validateReturnItems(Order order,
+	                            ReturnOrderRequestDTO requestDto){
 		List<ItemQuantityDTO> itemsToReturn = requestDto.getItemsToReturn();
 		// 1. map for quick lookup of original order items by productId
 		Map<String, OrderItem> originalItemsMap = order.getItems().stream()
@@ -0,0 +1,339 @@
+package com.beaconfire.ordermanagement.service.outbox;
+
+import com.beaconfire.ordermanagement.configuration.KafkaTopicInitializer;
+import com.beaconfire.ordermanagement.entity.OutboxEvent;
+import com.beaconfire.ordermanagement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * @author luluxue
+ * @date 2026-01-07
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+	private final OutboxEventRepository outboxRepo;
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final ProducerSendTracker sendTracker;
+	private final KafkaTopicInitializer topicInitializer;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate tx;
+	private final int batchSize;
+	private final long sendTimeoutMs;
+	private final int maxAttempts;
+	private final Duration lease;
+	private final Duration retention;
+	
+	// payload class lookup is done once per event type
+	private final Map<String, Class<?>> payloadTypes = new ConcurrentHashMap<>();
+	
+	// metrics
+	private final Counter publishedCounter;
+	private final Counter failedCounter;
+	private final Timer batchTimer;
+	private final AtomicLong pendingEvents = new AtomicLong();
+	private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+	private final AtomicLong parkedEvents = new AtomicLong();
+	
+	public OutboxRelay(OutboxEventRepository outboxRepo,
+	                   KafkaTemplate<String, Object> kafkaTemplate,
+	                   ProducerSendTracker sendTracker,
+	                   KafkaTopicInitializer topicInitializer,
+	                   ObjectMapper objectMapper,
+	                   PlatformTransactionManager transactionManager,
+	                   MeterRegistry meterRegistry,
+	                   @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+	                   @Value("${app.outbox.relay.send-timeout-ms:35000}") long sendTimeoutMs,
+	                   @Value("${app.outbox.relay.max-attempts:10}") int maxAttempts,
+	                   @Value("${app.outbox.relay.lease-ms:60000}") long leaseMs,
+	                   @Value("${app.outbox.retention-days:7}") int retentionDays){
+		this.outboxRepo = outboxRepo;
+		this.kafkaTemplate = kafkaTemplate;
+		this.sendTracker = sendTracker;
+		this.topicInitializer = topicInitializer;
+		this.objectMapper = objectMapper;
+		this.tx = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.sendTimeoutMs = sendTimeoutMs;
+		this.maxAttempts = maxAttempts;
+		this.lease = Duration.ofMillis(leaseMs);
+		this.retention = Duration.ofDays(retentionDays);
+		
+		this.publishedCounter = Counter.builder("outbox.events.published")
+				.description("Outbox events acknowledged by the broker")
+				.register(meterRegistry);
+		this.failedCounter = Counter.builder("outbox.events.failed")
+				.description("Outbox sends that failed, the event is retried until it runs out of attempts")
+				.register(meterRegistry);
+		this.batchTimer = Timer.builder("outbox.relay.batch")
+				.description("Time to send and acknowledge one outbox batch")
+				.register(meterRegistry);
+		Gauge.builder("outbox.events.pending", pendingEvents, AtomicLong::get)
+				.description("Outbox events not yet published")
+				.register(meterRegistry);
+		Gauge.builder("outbox.lag", oldestPendingAgeMs, AtomicLong::get)
+				.description("Age of the oldest unpublished outbox event")
+				.baseUnit("milliseconds")
+				.register(meterRegistry);
+		Gauge.builder("outbox.events.parked", parkedEvents, AtomicLong::get)
+				.description("Outbox events the relay gave up on")
+				.register(meterRegistry);
+	}
+	
+	/*
+	* drain the outbox in batches while every event of the batch gets published
+	* a batch with a failure ends the run, so a failing head of the queue is retried once per poll
+	* instead of in a tight loop
+	* */
+	@Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:200}")
+	public void relay(){
+		// topics not checked and metadata not loaded yet
+		if (!topicInitializer.isRunning()){
+			return;
+		}
+		
+		int published;
+		do {
+			Timer.Sample sample = Timer.start();
+			published = relayBatch();
+			sample.stop(batchTimer);
+			// refreshed per batch, so the gauges move while a backlog drains
+			refreshLag();
+		} while (published == batchSize);
+	}
+	
+	/*
+	* send one batch in id order and wait for the acks
+	* no transaction is open while sending: the batch is claimed (leased) in one short transaction
+	* and the outcome is written in a second one, so neither row locks nor a pooled connection
+	* are held while the broker acknowledges. if the relay dies in between, the lease runs out
+	* and the events are sent again.
+	*
+	* the batch goes out in rounds of at most one event per order: an order's next event is only
+	* sent once the previous one is acknowledged, so nothing of an order is on the wire behind
+	* an event that may still fail. if an event fails, the rest of its order is not sent in this
+	* batch and goes out in order, behind it, next run.
+	* only the failed event uses up an attempt, it is parked after max-attempts.
+	*
+	* @return: number of events acknowledged by the broker
+	* */
+	private int relayBatch(){
+		// 1. claim
+		List<OutboxEvent> batch = tx.execute(status -> claimBatch());
+		if (batch.isEmpty()){
+			return 0;
+		}
+		
+		// 2. queue the events per order, in id order
+		Map<String, Deque<OutboxEvent>> queues = new LinkedHashMap<>();
+		for (OutboxEvent event: batch){
+			queues.computeIfAbsent(event.getAggregateId(), key -> new ArrayDeque<>()).add(event);
+		}
+		
+		// 3. send the next event of every order and wait for the acks, until the queues run dry
+		// or an order's event fails, the rest of that order stays pending
+		LocalDateTime now = LocalDateTime.now();
+		List<OutboxEvent> failed = new ArrayList<>();
+		while (!queues.isEmpty() && !Thread.currentThread().isInterrupted()){
+			List<OutboxEvent> round = queues.values().stream().map(Deque::poll).toList();
+			Set<String> heldKeys = sendRound(round, now, failed);
+			queues.keySet().removeAll(heldKeys);
+			queues.values().removeIf(Deque::isEmpty);
+		}
+		
+		// 4. record the outcome and drop the lease
+		List<Long> publishedIds = batch.stream()
+				.filter(event -> event.getPublishedAt() != null)
+				.map(OutboxEvent::getId)
+				.toList();
+		Set<Long> failedIds = failed.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+		List<Long> heldIds = batch.stream()
+				.filter(event -> event.getPublishedAt() == null && !failedIds.contains(event.getId()))
+				.map(OutboxEvent::getId)
+				.toList();
+		tx.executeWithoutResult(status -> {
+			if (!publishedIds.isEmpty()){
+				outboxRepo.markPublished(publishedIds, now);
+			}
+			if (!heldIds.isEmpty()){
+				outboxRepo.release(heldIds);
+			}
+			// few rows, written one by one with their attempts and error
+			for (OutboxEvent event: failed){
+				event.setClaimedUntil(null);
+				outboxRepo.save(event);
+			}
+		});
+		
+		return publishedIds.size();
+	}
+	
+	/*
+	* send one event per order and wait for the acks
+	* everything is sent first so the producer can batch the records,
+	* per-topic latency and errors are recorded from the send callbacks
+	*
+	* @return: orders whose event did not go out, their later events are held back
+	* */
+	private Set<String> sendRound(List<OutboxEvent> round, LocalDateTime now, List<OutboxEvent> failed){
+		Set<String> heldKeys = new HashSet<>();
+		List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(round.size());
+		for (OutboxEvent event: round){
+			futures.add(null);
+			
+			Object payload;
+			try {
+				payload = toPayload(event);
+			} catch (Exception ex) {
+				// a payload that does not read back will not read back next time either
+				park(event, ex);
+				failed.add(event);
+				continue;
+			}
+			
+			try {
+				futures.set(futures.size() - 1, sendTracker.track(event.getTopic(),
+						kafkaTemplate.send(event.getTopic(), event.getAggregateId(), payload)));
+			} catch (Exception ex) {
+				sendTracker.failed(event.getTopic(), ex);
+				log.error("Outbox event {} for order {} could not be sent to {}",
+						event.getId(), event.getAggregateId(), event.getTopic(), ex);
+				heldKeys.add(event.getAggregateId());
+				retryLater(event, ex);
+				failed.add(event);
+			}
+		}
+		kafkaTemplate.flush();
+		
+		// then wait for the acks, in the same order
+		for (int i = 0; i < round.size(); i++){
+			OutboxEvent event = round.get(i);
+			CompletableFuture<SendResult<String, Object>> future = futures.get(i);
+			// not sent, already handled above
+			if (future == null){
+				continue;
+			}
+			
+			try {
+				future.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+				event.setPublishedAt(now);
+				publishedCounter.increment();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				heldKeys.add(event.getAggregateId());
+				retryLater(event, ex);
+				failed.add(event);
+			} catch (Exception ex) {
+				log.warn("Outbox event {} for order {} was not acknowledged by {}: {}",
+						event.getId(), event.getAggregateId(), event.getTopic(), ex.getMessage());
+				heldKeys.add(event.getAggregateId());
+				retryLater(event, ex);
+				failed.add(event);
+			}
+		}
+		return heldKeys;
+	}
+	
+	/*
+	* lease the next batch, the row locks are released when this transaction commits
+	* an order that another relay is sending right now stays with that relay: its later events
+	* are not claimed here, so they cannot overtake the ones in flight
+	* */
+	private List<OutboxEvent> claimBatch(){
+		LocalDateTime now = LocalDateTime.now();
+		List<OutboxEvent> candidates = outboxRepo.findClaimable(now, PageRequest.of(0, batchSize));
+		if (candidates.isEmpty()){
+			return candidates;
+		}
+		
+		// a fresh read, it sees the leases committed while this claim waited on the row locks
+		Set<String> leasedKeys = outboxRepo.findLeasedAggregateIds(now,
+				candidates.stream().map(OutboxEvent::getAggregateId).collect(Collectors.toSet()));
+		List<OutboxEvent> batch = candidates.stream()
+				.filter(event -> !leasedKeys.contains(event.getAggregateId()))
+				.toList();
+		
+		if (!batch.isEmpty()){
+			outboxRepo.claim(batch.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+		}
+		return batch;
+	}
+	
+	// count the attempt, the event is parked once it has used them all
+	private void retryLater(OutboxEvent event, Exception cause){
+		event.setAttempts(event.getAttempts() + 1);
+		event.setLastError(describe(cause));
+		failedCounter.increment();
+		
+		if (event.getAttempts() >= maxAttempts){
+			park(event, cause);
+		}
+	}
+	
+	/*
+	* stop sending the event, it stays in the table with the reason
+	* later events of the same order are not held back by it, they go out on the next run
+	* */
+	private void park(OutboxEvent event, Exception cause){
+		event.setParkedAt(LocalDateTime.now());
+		event.setLastError(describe(cause));
+		log.error("Outbox event {} for order {} on {} parked after {} attempts: {}",
+				event.getId(), event.getAggregateId(), event.getTopic(), event.getAttempts(), event.getLastError());
+	}
+	
+	private String describe(Exception cause){
+		String description = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+		return description.length() > 500 ? description.substring(0, 500) : description;
+	}
+	
+	// turn the stored JSON back into the event DTO, so the configured serializer
+	// writes the same record (and type headers) as a direct send would
+	private Object toPayload(OutboxEvent event) throws Exception {
+		Class<?> type = payloadTypes.computeIfAbsent(event.getPayloadType(), name -> {
+			try {
+				return Class.forName(name);
+			} catch (ClassNotFoundException ex) {
+				throw new IllegalArgumentException("Unknown outbox payload type: " + name, ex);
+			}
+		});
+		return objectMapper.readValue(event.getPayload(), type);
+	}
+	
+	private void refreshLag(){
+		pendingEvents.set(outboxRepo.countByPublishedAtIsNullAndParkedAtIsNull());
+		oldestPendingAgeMs.set(outboxRepo.findOldestPendingCreatedAt()
+				.map(createdAt -> Duration.between(createdAt, LocalDateTime.now()).toMillis())
+				.orElse(0L));
+		parkedEvents.set(outboxRepo.countByParkedAtIsNotNull());
+	}
+	
+	// published events are only kept for auditing
+	@Scheduled(cron = "${app.outbox.cleanup-cron:0 0 * * * *}")
+	public void deletePublishedEvents(){
+		int deleted = tx.execute(status ->
+				outboxRepo.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+		log.info("Deleted {} published outbox events", deleted);
+	}
+}
@@ -0,0 +1,58 @@
+package com.beaconfire.ordermanagement.service.outbox;
+
+import com.beaconfire.ordermanagement.entity.OutboxEvent;
+import com.beaconfire.ordermanagement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author luluxue
+ * @date 2026-01-07
+ */
+@Component
+@Slf4j
+public class OutboxWriter {
+	private final OutboxEventRepository outboxRepo;
+	private final ObjectMapper objectMapper;
+	
+	public OutboxWriter(OutboxEventRepository outboxRepo, ObjectMapper objectMapper){
+		this.outboxRepo = outboxRepo;
+		this.objectMapper = objectMapper;
+	}
+	
+	/*
+	* store the event in the outbox table, in the caller's transaction
+	* the event is only sent to Kafka (by OutboxRelay) if that transaction commits
+	*
+	* @param topic: destination topic
+	* @param orderId: used as the Kafka key, keeps all events of one order on one partition
+	* @param event: event DTO
+	* */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueue(String topic, String orderId, Object event){
+		String payload;
+		try {
+			payload = objectMapper.writeValueAsString(event);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName()
+					+ " for order " + orderId, ex);
+		}
+		
+		OutboxEvent outboxEvent = OutboxEvent.builder()
+				.aggregateId(orderId)
+				.topic(topic)
+				.payloadType(event.getClass().getName())
+				.payload(payload)
+				.createdAt(LocalDateTime.now())
+				.build();
+		
+		outboxRepo.save(outboxEvent);
+		log.debug("Queued {} for order {} on topic {}", event.getClass().getSimpleName(), orderId, topic);
+	}
+}
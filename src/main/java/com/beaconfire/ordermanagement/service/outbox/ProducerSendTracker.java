@@ -0,0 +1,111 @@
+package com.beaconfire.ordermanagement.service.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-02-03
+ */
+/*
+* per-topic producer metrics, recorded from the send callbacks on the producer I/O thread:
+* - kafka.producer.send{topic, result}: send() to broker ack (includes linger and retries)
+* - kafka.producer.send.errors{topic, exception}: sends that failed, the outbox resends them
+* - kafka.producer.batch.fill.ratio: average batch size / batch.size. Kafka only reports batch
+*   sizes per producer, not per topic; a low ratio with high linger.ms means linger is wasted.
+* */
+@Component
+@Slf4j
+public class ProducerSendTracker {
+	private static final int DEFAULT_BATCH_SIZE = 16384;
+	
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+	private final Map<String, Timer> failureTimers = new ConcurrentHashMap<>();
+	private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+	
+	public ProducerSendTracker(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry){
+		this.meterRegistry = meterRegistry;
+		
+		int batchSize = configuredBatchSize(kafkaTemplate.getProducerFactory().getConfigurationProperties());
+		Gauge.builder("kafka.producer.batch.fill.ratio", kafkaTemplate, template -> batchFillRatio(template, batchSize))
+				.description("Average producer batch size relative to batch.size")
+				.register(meterRegistry);
+	}
+	
+	/*
+	* record the outcome of a send when the broker answers, without waiting for it
+	* the returned future is the same one, the caller still decides what a failure means
+	* */
+	public <K, V> CompletableFuture<SendResult<K, V>> track(String topic, CompletableFuture<SendResult<K, V>> send){
+		long startedAt = System.nanoTime();
+		send.whenComplete((result, ex) -> {
+			long elapsed = System.nanoTime() - startedAt;
+			if (ex == null){
+				successTimers.computeIfAbsent(topic, key -> sendTimer(key, "success"))
+						.record(elapsed, TimeUnit.NANOSECONDS);
+			} else {
+				failureTimers.computeIfAbsent(topic, key -> sendTimer(key, "failure"))
+						.record(elapsed, TimeUnit.NANOSECONDS);
+				failed(topic, ex);
+			}
+		});
+		return send;
+	}
+	
+	// send() itself threw (serialization error, buffer full for max.block.ms, ...)
+	public void failed(String topic, Throwable ex){
+		Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+		String exception = cause.getClass().getSimpleName();
+		errorCounters.computeIfAbsent(topic + '|' + exception, key -> Counter.builder("kafka.producer.send.errors")
+						.description("Producer sends that failed and are left in the outbox for a retry")
+						.tag("topic", topic)
+						.tag("exception", exception)
+						.register(meterRegistry))
+				.increment();
+	}
+	
+	private Timer sendTimer(String topic, String result){
+		return Timer.builder("kafka.producer.send")
+				.description("Time from send to broker acknowledgement")
+				.tag("topic", topic)
+				.tag("result", result)
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
+	
+	private static double batchFillRatio(KafkaTemplate<?, ?> template, int batchSize){
+		try {
+			for (Map.Entry<MetricName, ? extends Metric> metric: template.metrics().entrySet()){
+				MetricName name = metric.getKey();
+				if ("batch-size-avg".equals(name.name()) && "producer-metrics".equals(name.group())
+						&& metric.getValue().metricValue() instanceof Double average && !average.isNaN()){
+					return average / batchSize;
+				}
+			}
+		} catch (Exception ex) {
+			log.debug("Producer metrics not available: {}", ex.getMessage());
+		}
+		return Double.NaN;
+	}
+	
+	private static int configuredBatchSize(Map<String, Object> producerConfig){
+		Object batchSize = producerConfig.get(ProducerConfig.BATCH_SIZE_CONFIG);
+		return batchSize == null ? DEFAULT_BATCH_SIZE : Integer.parseInt(String.valueOf(batchSize));
+	}
+}
@@ -55,10 +55,10 @@ public class PaymentEventPublisher {
 		// 2 publish the refund event based on refundType
 		switch(refundType){
 			case CANCELLATION:
-				paymentProducer.sendPaymentRefundEvent(PaymentProducer.CANCELLED_INVENTORY_FAILED_TOPIC, orderRefundRequestedEvent);
+				paymentProducer.sendCancellationRefundEvent(orderRefundRequestedEvent);
 				break;
 			case RETURN:
-				paymentProducer.sendPaymentRefundEvent(PaymentProducer.RETURNED_TOPIC, orderRefundRequestedEvent);
+				paymentProducer.sendReturnRefundEvent(orderRefundRequestedEvent);
 				break;
 			default:
 				log.error("Unknown refund type: {}", refundType);
@@ -0,0 +1,41 @@
+package com.beaconfire.ordermanagement.service.support;
+
+import feign.Request;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author luluxue
+ * @date 2026-01-24
+ */
+/*
+* a point in time a whole request has to finish by
+* every downstream call started for the request gets what is left of the budget,
+* instead of its own fixed timeout
+* */
+public final class Deadline {
+	private final long deadlineNanos;
+	
+	private Deadline(long deadlineNanos){
+		this.deadlineNanos = deadlineNanos;
+	}
+	
+	public static Deadline after(Duration budget){
+		return new Deadline(System.nanoTime() + budget.toNanos());
+	}
+	
+	public long remainingMillis(){
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+	}
+	
+	public boolean isExpired(){
+		return remainingMillis() == 0;
+	}
+	
+	// Feign connect/read timeouts for a call that must end before the deadline
+	public Request.Options toFeignOptions(){
+		long remaining = Math.max(1, remainingMillis());
+		return new Request.Options(remaining, TimeUnit.MILLISECONDS, remaining, TimeUnit.MILLISECONDS, true);
+	}
+}
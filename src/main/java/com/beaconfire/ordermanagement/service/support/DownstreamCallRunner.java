@@ -0,0 +1,152 @@
+package com.beaconfire.ordermanagement.service.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * @author luluxue
+ * @date 2026-01-24
+ */
+/*
+* runs the blocking downstream calls of a fan-out on the order details executor
+* - a call that is given up on (timeout or cancel) interrupts its worker thread
+* - every started attempt is added to inFlight, so the caller can cancel them all at once
+* - an attempt the executor rejects (pool and queue full) fails right away, like a failed call
+* - hedging (optional): if the first attempt has not answered after hedge-after,
+*   a second one is started and the first successful answer wins
+*   only use it for idempotent reads, it adds load on the slow tail
+* */
+@Component
+@Slf4j
+public class DownstreamCallRunner {
+	private final Executor executor;
+	private final boolean hedgingEnabled;
+	private final long hedgeAfterMs;
+	private final Executor hedgeTimer;
+	
+	private final Counter hedgesLaunched;
+	private final Counter hedgesWon;
+	
+	public DownstreamCallRunner(@Qualifier("orderDetailsExecutor") Executor executor,
+	                            MeterRegistry meterRegistry,
+	                            @Value("${app.order-details.hedging.enabled:false}") boolean hedgingEnabled,
+	                            @Value("${app.order-details.hedging.hedge-after:300ms}") Duration hedgeAfter){
+		this.executor = executor;
+		this.hedgingEnabled = hedgingEnabled;
+		this.hedgeAfterMs = hedgeAfter.toMillis();
+		this.hedgeTimer = CompletableFuture.delayedExecutor(hedgeAfterMs, TimeUnit.MILLISECONDS);
+		
+		this.hedgesLaunched = Counter.builder("order.details.hedges")
+				.description("Second attempts started for slow downstream calls")
+				.tag("result", "launched")
+				.register(meterRegistry);
+		this.hedgesWon = Counter.builder("order.details.hedges")
+				.description("Second attempts started for slow downstream calls")
+				.tag("result", "won")
+				.register(meterRegistry);
+	}
+	
+	public <T> CompletableFuture<T> call(Supplier<T> call){
+		return submit(call);
+	}
+	
+	public <T> CompletableFuture<T> call(Supplier<T> call, Collection<CompletableFuture<?>> inFlight){
+		CompletableFuture<T> attempt = submit(call);
+		inFlight.add(attempt);
+		return attempt;
+	}
+	
+	// same as call, with a hedged second attempt when hedging is enabled
+	public <T> CompletableFuture<T> hedgedCall(Supplier<T> call, Deadline deadline,
+	                                           Collection<CompletableFuture<?>> inFlight){
+		if (!hedgingEnabled){
+			return call(call, inFlight);
+		}
+		
+		CompletableFuture<T> winner = new CompletableFuture<>();
+		AtomicInteger running = new AtomicInteger(1);
+		
+		CompletableFuture<T> primary = call(call, inFlight);
+		completeOnSuccess(winner, primary, running, false);
+		
+		hedgeTimer.execute(() -> {
+			// answered already, or not enough budget left for a second try
+			if (winner.isDone() || deadline.remainingMillis() < hedgeAfterMs){
+				return;
+			}
+			running.incrementAndGet();
+			hedgesLaunched.increment();
+			CompletableFuture<T> hedge = call(call, inFlight);
+			completeOnSuccess(winner, hedge, running, true);
+			
+			// stop the loser once there is an answer
+			winner.whenComplete((value, ex) -> hedge.cancel(true));
+		});
+		
+		winner.whenComplete((value, ex) -> primary.cancel(true));
+		return winner;
+	}
+	
+	// the first successful attempt completes the result, it only fails once every attempt failed
+	private <T> void completeOnSuccess(CompletableFuture<T> winner, CompletableFuture<T> attempt,
+	                                   AtomicInteger running, boolean hedge){
+		attempt.whenComplete((value, ex) -> {
+			if (ex == null){
+				if (winner.complete(value) && hedge){
+					hedgesWon.increment();
+				}
+			} else if (running.decrementAndGet() == 0){
+				winner.completeExceptionally(ex);
+			}
+		});
+	}
+	
+	/*
+	* CompletableFuture.supplyAsync cannot interrupt the task it runs,
+	* so the work is wrapped in a FutureTask that is cancelled when the result is given up on
+	* */
+	private <T> CompletableFuture<T> submit(Supplier<T> call){
+		CompletableFuture<T> result = new CompletableFuture<>();
+		AtomicBoolean finished = new AtomicBoolean();
+		
+		FutureTask<Void> task = new FutureTask<>(() -> {
+			try {
+				T value = call.get();
+				finished.set(true);
+				result.complete(value);
+			} catch (Throwable ex) {
+				finished.set(true);
+				result.completeExceptionally(ex);
+			}
+			return null;
+		});
+		
+		result.whenComplete((value, ex) -> {
+			if (ex != null && !finished.get()){
+				task.cancel(true);
+			}
+		});
+		
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException ex) {
+			result.completeExceptionally(ex);
+		}
+		return result;
+	}
+}
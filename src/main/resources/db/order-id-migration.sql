@@ -0,0 +1,41 @@
+-- order ids: random UUIDv4 strings -> time-ordered UUIDv7 strings (TimeOrderedIds), 2026-01-29
+--
+-- existing ids are NOT rewritten. old and new ids have the same canonical 36-char form,
+-- so ids already given to customers, payment-service and shipment-service stay valid
+-- and new orders sort after the old ones. only the column type changes, to the native
+-- uuid type (16 bytes) as now mapped on Order.id by OrderIdType.
+-- PostgreSQL syntax. run during a quiet period, the ALTERs rewrite both tables.
+
+BEGIN;
+
+-- the foreign key from order_items has a Hibernate-generated name, so it is looked up.
+-- every such key is dropped (an earlier run of this script could have left two),
+-- the columns change type, and one key is created again under the first name found
+DO $$
+DECLARE
+    fk record;
+    fk_name text;
+BEGIN
+    FOR fk IN
+        SELECT conname
+        FROM pg_constraint
+        WHERE conrelid = 'order_items'::regclass
+          AND confrelid = 'orders'::regclass
+          AND contype = 'f'
+        ORDER BY conname
+    LOOP
+        fk_name := coalesce(fk_name, fk.conname);
+        EXECUTE format('ALTER TABLE order_items DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+
+    ALTER TABLE orders      ALTER COLUMN order_id TYPE uuid USING order_id::uuid;
+    ALTER TABLE order_items ALTER COLUMN order_id TYPE uuid USING order_id::uuid;
+
+    EXECUTE format('ALTER TABLE order_items ADD CONSTRAINT %I FOREIGN KEY (order_id) REFERENCES orders (order_id)',
+                   coalesce(fk_name, 'fk_order_items_order'));
+END
+$$;
+
+COMMIT;
+
+-- no REINDEX afterwards: the type change rewrites both tables and rebuilds their indexes
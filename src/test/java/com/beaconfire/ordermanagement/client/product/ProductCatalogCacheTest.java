@@ -0,0 +1,61 @@
+package com.beaconfire.ordermanagement.client.product;
+
+import com.beaconfire.ordermanagement.dto.ProductResponseDTO;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+class ProductCatalogCacheTest {
+	private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true);
+	
+	private final ProductServiceClient productClient = mock(ProductServiceClient.class);
+	private final ProductCatalogCache catalog = new ProductCatalogCache(productClient, new SimpleMeterRegistry(),
+			100, Duration.ofMinutes(10), Duration.ofMinutes(8));
+	
+	@Test
+	void fetchedProductIsCachedForTheNextCaller(){
+		when(productClient.getProductsByIds(anyList(), any(Request.Options.class))).thenReturn(List.of(product("9.99")));
+		
+		catalog.getProducts(List.of("sku-1"), OPTIONS);
+		
+		assertThat(catalog.getProducts(List.of("sku-1"), OPTIONS).get("sku-1").getUnitPrice()).isEqualByComparingTo("9.99");
+		verify(productClient, times(1)).getProductsByIds(anyList(), any(Request.Options.class));
+	}
+	
+	@Test
+	void priceChangeDuringTheFetchKeepsTheOldPriceOutOfTheCache(){
+		when(productClient.getProductsByIds(anyList(), any(Request.Options.class))).thenAnswer(invocation -> {
+			// the price changes after product-service answered, before the answer is cached
+			catalog.invalidate(List.of("sku-1"));
+			return List.of(product("9.99"));
+		});
+		
+		assertThat(catalog.getProducts(List.of("sku-1"), OPTIONS)).containsKey("sku-1");
+		
+		when(productClient.getProductDetails("sku-1")).thenReturn(product("12.50"));
+		assertThat(catalog.getProduct("sku-1")).get().extracting(ProductResponseDTO::getUnitPrice)
+				.isEqualTo(new BigDecimal("12.50"));
+	}
+	
+	private static ProductResponseDTO product(String price){
+		return ProductResponseDTO.builder()
+				.productId("sku-1")
+				.productName("Lamp")
+				.unitPrice(new BigDecimal(price))
+				.build();
+	}
+}
@@ -0,0 +1,153 @@
+package com.beaconfire.ordermanagement.consumer;
+
+import com.beaconfire.ordermanagement.configuration.EventRetryProperties;
+import com.beaconfire.ordermanagement.consumer.util.EventProcessorUtil;
+import com.beaconfire.ordermanagement.consumer.util.EventRetryTiers;
+import com.beaconfire.ordermanagement.consumer.util.EventRouter;
+import com.beaconfire.ordermanagement.consumer.util.OrderLaneDispatcher;
+import com.beaconfire.ordermanagement.dto.PaymentConfirmedEvent;
+import com.beaconfire.ordermanagement.service.OrderEventHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+class EventRetryConsumerTest {
+	private static final String DUE_AT_HEADER = "x-event-due-at";
+	
+	private final EventRetryProperties properties = new EventRetryProperties();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+	private final OrderEventHandler eventHandler = mock(OrderEventHandler.class);
+	private final OrderLaneDispatcher laneDispatcher = new OrderLaneDispatcher(2, meterRegistry);
+	private final Acknowledgment ack = mock(Acknowledgment.class);
+	private EventRetryTiers retryTiers;
+	// listener of each tier's container
+	private List<Object> listeners;
+	
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp(){
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+		retryTiers = new EventRetryTiers(properties, kafkaTemplate, meterRegistry);
+		
+		ConcurrentKafkaListenerContainerFactory<String, Object> factory = mock(ConcurrentKafkaListenerContainerFactory.class);
+		ConcurrentMessageListenerContainer<String, Object> container = mock(ConcurrentMessageListenerContainer.class);
+		when(factory.createContainer(anyString())).thenReturn(container);
+		when(container.getContainerProperties()).thenReturn(new ContainerProperties("retry"));
+		
+		new EventRetryConsumer(factory, properties, retryTiers, new EventRouter(eventHandler, meterRegistry),
+				new EventProcessorUtil(), laneDispatcher);
+		
+		ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+		verify(container, times(properties.getTiers())).setupMessageListener(captor.capture());
+		listeners = captor.getAllValues();
+	}
+	
+	@AfterEach
+	void tearDown(){
+		laneDispatcher.destroy();
+	}
+	
+	@Test
+	void notDueRecordIsNackedUntilItIsDue(){
+		onRecord(0, record("order-1", System.currentTimeMillis() + 5_000));
+		
+		ArgumentCaptor<Duration> pause = ArgumentCaptor.forClass(Duration.class);
+		verify(ack).nack(pause.capture());
+		assertThat(pause.getValue()).isBetween(Duration.ofSeconds(4), Duration.ofSeconds(5));
+		verify(ack, never()).acknowledge();
+		verifyNoInteractions(eventHandler, kafkaTemplate);
+	}
+	
+	@Test
+	void farOffRecordIsCheckedAgainAfterTheMaxPause(){
+		onRecord(2, record("order-1", System.currentTimeMillis() + Duration.ofMinutes(10).toMillis()));
+		
+		verify(ack).nack(Duration.ofSeconds(30));
+		verifyNoInteractions(eventHandler);
+	}
+	
+	@Test
+	void dueRecordRunsItsHandler(){
+		ConsumerRecord<String, Object> record = record("order-1", System.currentTimeMillis() - 1);
+		
+		onRecord(0, record);
+		
+		verify(eventHandler).handlePaymentConfirmed((PaymentConfirmedEvent) record.value());
+		verify(ack).acknowledge();
+		verifyNoInteractions(kafkaTemplate);
+	}
+	
+	@Test
+	void failingAgainMovesToTheNextTier(){
+		doThrow(new RuntimeException("still down")).when(eventHandler).handlePaymentConfirmed(any());
+		ConsumerRecord<String, Object> record = record("order-1", System.currentTimeMillis() - 1);
+		record.headers().add("x-event-attempt", "1".getBytes(StandardCharsets.UTF_8));
+		
+		onRecord(0, record);
+		
+		assertThat(sent().topic()).isEqualTo("order-events.retry-1");
+		verify(ack).acknowledge();
+	}
+	
+	@Test
+	void dueRecordFollowsAnEarlierEventOfItsOrderToALaterTier(){
+		retryTiers.forwardParked("payment-confirmed", "order-1", event("order-1"), 2, new RuntimeException("down"));
+		clearInvocations(kafkaTemplate);
+		
+		onRecord(0, record("order-1", System.currentTimeMillis() - 1));
+		
+		assertThat(sent().topic()).isEqualTo("order-events.retry-2");
+		verifyNoInteractions(eventHandler);
+		verify(ack).acknowledge();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void onRecord(int tier, ConsumerRecord<String, Object> record){
+		((AcknowledgingMessageListener<String, Object>) listeners.get(tier)).onMessage(record, ack);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private ProducerRecord<String, Object> sent(){
+		ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate).send(captor.capture());
+		return captor.getValue();
+	}
+	
+	private static ConsumerRecord<String, Object> record(String orderId, long dueAt){
+		ConsumerRecord<String, Object> record = new ConsumerRecord<>("order-events.retry-0", 0, 0L, orderId, event(orderId));
+		record.headers().add(DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+		return record;
+	}
+	
+	private static PaymentConfirmedEvent event(String orderId){
+		PaymentConfirmedEvent event = new PaymentConfirmedEvent();
+		event.setOrderId(orderId);
+		return event;
+	}
+}
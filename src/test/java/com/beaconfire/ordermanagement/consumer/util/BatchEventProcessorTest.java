@@ -0,0 +1,120 @@
+package com.beaconfire.ordermanagement.consumer.util;
+
+import com.beaconfire.ordermanagement.exception.OrderNotFoundException;
+import com.beaconfire.ordermanagement.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.KafkaNull;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+class BatchEventProcessorTest {
+	private final EventProcessorUtil eventUtil = spy(new EventProcessorUtil());
+	private final OrderRepository orderRepo = mock(OrderRepository.class);
+	private final OrderLaneDispatcher laneDispatcher = new OrderLaneDispatcher(1, new SimpleMeterRegistry());
+	private final EventRetryTiers retryTiers = mock(EventRetryTiers.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final BatchEventProcessor processor =
+			new BatchEventProcessor(eventUtil, orderRepo, laneDispatcher, retryTiers, transactionManager);
+	// events handled in a transaction that committed
+	private final List<String> committed = new ArrayList<>();
+	private final List<String> pending = new ArrayList<>();
+	
+	@BeforeEach
+	void setUp(){
+		when(retryTiers.heldTier(any())).thenReturn(-1);
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+			pending.clear();
+			return mock(TransactionStatus.class);
+		});
+		doAnswer(invocation -> committed.addAll(pending)).when(transactionManager).commit(any());
+	}
+	
+	@AfterEach
+	void tearDown(){
+		laneDispatcher.destroy();
+	}
+	
+	@Test
+	void skippedEventIsLeftOutAndTheBatchRunsAgain(){
+		processor.processBatch("payment-confirmed", List.of("order-1", "order-2", "order-3"), Function.identity(),
+				orderId -> {
+					if (orderId.equals("order-2")){
+						throw new IllegalStateException("Cannot confirm order in status: CANCELLED");
+					}
+					pending.add(orderId);
+				});
+		
+		assertThat(committed).containsExactly("order-1", "order-3");
+		verify(transactionManager, times(2)).getTransaction(any());
+		verify(transactionManager).rollback(any());
+		verify(eventUtil, never()).processEvent(anyString(), anyString(), any());
+	}
+	
+	@Test
+	void retryableFailureFallsBackToOneByOne(){
+		when(retryTiers.forward(any(), any(), any(), anyInt(), any())).thenReturn(true);
+		
+		processor.processBatch("payment-confirmed", List.of("order-1", "order-2"), Function.identity(),
+				orderId -> {
+					if (orderId.equals("order-2")){
+						throw new IllegalArgumentException("downstream failed");
+					}
+				});
+		
+		verify(eventUtil, times(2)).processEvent(eq("payment-confirmed"), anyString(), any());
+		verify(retryTiers).forward(eq("payment-confirmed"), eq("order-2"), eq("order-2"), eq(0), any());
+	}
+	
+	@Test
+	void everyEventSkippedCommitsNothing(){
+		processor.processBatch("payment-confirmed", List.of("order-1"), Function.identity(),
+				orderId -> {
+					throw new OrderNotFoundException(orderId);
+				});
+		
+		assertThat(committed).isEmpty();
+		verify(transactionManager, never()).commit(any());
+		verify(eventUtil, never()).processEvent(anyString(), anyString(), any());
+	}
+	
+	@Test
+	void eventOfAParkedOrderIsHeldBackInsteadOfHandled(){
+		when(retryTiers.heldTier("order-1")).thenReturn(0);
+		when(retryTiers.follow("payment-confirmed", "order-1", "order-1")).thenReturn(true);
+		
+		processor.processBatch("payment-confirmed", List.of("order-1", "order-2"), Function.identity(), pending::add);
+		
+		assertThat(committed).containsExactly("order-2");
+		verify(retryTiers).follow("payment-confirmed", "order-1", "order-1");
+	}
+	
+	@Test
+	void undecodableRecordEndsThePollAfterTheEventsBeforeIt(){
+		List<Object> events = List.of("order-1", KafkaNull.INSTANCE, "order-3");
+		
+		assertThatThrownBy(() -> processor.processBatch("payment-confirmed", events, event -> (String) event,
+				event -> pending.add((String) event)))
+				.isInstanceOfSatisfying(BatchListenerFailedException.class,
+						failed -> assertThat(failed.getIndex()).isEqualTo(1))
+				.hasCauseInstanceOf(DeserializationException.class);
+		assertThat(committed).containsExactly("order-1");
+	}
+}
@@ -0,0 +1,186 @@
+package com.beaconfire.ordermanagement.consumer.util;
+
+import com.beaconfire.ordermanagement.configuration.EventRetryProperties;
+import com.beaconfire.ordermanagement.dto.PaymentConfirmedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+class EventRetryTiersTest {
+	private final EventRetryProperties properties = new EventRetryProperties();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+	private EventRetryTiers retryTiers;
+	
+	@BeforeEach
+	void setUp(){
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+		retryTiers = new EventRetryTiers(properties, kafkaTemplate, meterRegistry);
+	}
+	
+	@Test
+	void delayGrowsByTheMultiplierPerTier(){
+		assertThat(properties.delayOf(0)).isEqualTo(Duration.ofSeconds(1));
+		assertThat(properties.delayOf(1)).isEqualTo(Duration.ofSeconds(5));
+		assertThat(properties.delayOf(2)).isEqualTo(Duration.ofSeconds(25));
+		assertThat(properties.topics()).containsExactly("order-events.retry-0", "order-events.retry-1",
+				"order-events.retry-2", "order-events.dlt");
+		assertThat(retryTiers.holdTime()).isEqualTo(31_000);
+	}
+	
+	@Test
+	void failedRunsPickTheTierAndItsDueTime(){
+		long before = System.currentTimeMillis();
+		assertThat(retryTiers.forward("payment-confirmed", "order-1", event("order-1"), 0, new RuntimeException("down"))).isTrue();
+		assertThat(retryTiers.forwardParked("payment-confirmed", "order-1", event("order-1"), 2, new RuntimeException("down"))).isTrue();
+		long after = System.currentTimeMillis();
+		
+		List<ProducerRecord<String, Object>> sent = sent(2);
+		assertThat(sent.get(0).topic()).isEqualTo("order-events.retry-0");
+		assertThat(header(sent.get(0), EventRetryTiers.ATTEMPT_HEADER)).isEqualTo("1");
+		assertThat(Long.parseLong(header(sent.get(0), EventRetryTiers.DUE_AT_HEADER))).isBetween(before + 1_000, after + 1_000);
+		assertThat(sent.get(1).topic()).isEqualTo("order-events.retry-2");
+		assertThat(header(sent.get(1), EventRetryTiers.ATTEMPT_HEADER)).isEqualTo("3");
+		assertThat(Long.parseLong(header(sent.get(1), EventRetryTiers.DUE_AT_HEADER))).isBetween(before + 25_000, after + 25_000);
+		assertThat(sent.get(1).key()).isEqualTo("order-1");
+		assertThat(meterRegistry.get("order.events.retries").tag("tier", "2").counter().count()).isEqualTo(1);
+	}
+	
+	@Test
+	void lastTierHandsOffToTheDeadLetterTopic(){
+		assertThat(retryTiers.forwardParked("payment-confirmed", "order-1", event("order-1"), 3,
+				new IllegalStateException("still down"))).isTrue();
+		
+		ProducerRecord<String, Object> deadLetter = sent(1).get(0);
+		assertThat(deadLetter.topic()).isEqualTo("order-events.dlt");
+		assertThat(header(deadLetter, EventRetryTiers.ATTEMPT_HEADER)).isEqualTo("4");
+		assertThat(header(deadLetter, EventRetryTiers.DUE_AT_HEADER)).isEqualTo("0");
+		assertThat(header(deadLetter, EventRetryTiers.ORIGIN_HEADER)).isEqualTo("payment-confirmed");
+		assertThat(header(deadLetter, EventRetryTiers.EXCEPTION_HEADER))
+				.isEqualTo("java.lang.IllegalStateException: still down");
+		assertThat(meterRegistry.get("order.events.dead_lettered").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("order.events.retry.depth").tag("outcome", "dead_lettered").summary().max()).isEqualTo(4);
+		assertThat(retryTiers.heldTier("order-1")).isEqualTo(properties.getTiers());
+	}
+	
+	@Test
+	void laterEventsOfAParkedOrderFollowItUntilItIsHandled(){
+		retryTiers.forward("payment-confirmed", "order-1", event("order-1"), 0, new RuntimeException("down"));
+		assertThat(retryTiers.heldTier("order-1")).isZero();
+		assertThat(retryTiers.heldTier("order-2")).isEqualTo(-1);
+		assertThat(retryTiers.follow("inventory-reserved", "order-2", event("order-2"))).isFalse();
+		
+		// the follower queues behind the parked event on its tier
+		assertThat(retryTiers.follow("inventory-reserved", "order-1", event("order-1"))).isTrue();
+		// the parked event fails again and moves on, the follower goes after it
+		retryTiers.forwardParked("payment-confirmed", "order-1", event("order-1"), 1, new RuntimeException("down"));
+		assertThat(retryTiers.heldTier("order-1")).isEqualTo(1);
+		assertThat(retryTiers.followParked("payment-confirmed", "order-1", event("order-1"))).isTrue();
+		
+		List<ProducerRecord<String, Object>> sent = sent(4);
+		assertThat(sent).extracting(ProducerRecord::topic).containsExactly("order-events.retry-0",
+				"order-events.retry-0", "order-events.retry-1", "order-events.retry-1");
+		assertThat(header(sent.get(1), EventRetryTiers.HELD_BACK_HEADER)).isEqualTo("true");
+		assertThat(sent.get(1).headers().lastHeader(EventRetryTiers.EXCEPTION_HEADER)).isNull();
+		
+		retryTiers.recovered(received(sent.get(2)), "order-1");
+		assertThat(retryTiers.heldTier("order-1")).isEqualTo(1);
+		retryTiers.recovered(received(sent.get(3)), "order-1");
+		assertThat(retryTiers.heldTier("order-1")).isEqualTo(-1);
+		assertThat(meterRegistry.get("order.events.retry.depth").tag("outcome", "recovered").summary().count()).isEqualTo(1);
+	}
+	
+	@Test
+	void failedSendIsNotParked(){
+		when(kafkaTemplate.send(any(ProducerRecord.class)))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+		
+		assertThat(retryTiers.forward("payment-confirmed", "order-1", event("order-1"), 0, new RuntimeException("down"))).isFalse();
+		assertThat(retryTiers.heldTier("order-1")).isEqualTo(-1);
+	}
+	
+	@Test
+	void disabledTiersParkNothing(){
+		properties.setEnabled(false);
+		
+		assertThat(retryTiers.forward("payment-confirmed", "order-1", event("order-1"), 0, new RuntimeException("down"))).isFalse();
+		verifyNoInteractions(kafkaTemplate);
+	}
+	
+	@Test
+	void undecodableRecordIsDeadLetteredWithItsBytesAndHeaders(){
+		byte[] data = {0, 1, 2};
+		ConsumerRecord<String, Object> record = new ConsumerRecord<>("payment.charge-confirmed", 0, 7L, "order-1", null);
+		record.headers().add("__TypeId__", PaymentConfirmedEvent.class.getName().getBytes(StandardCharsets.UTF_8));
+		SerializationUtils.deserializationException(record.headers(), data,
+				new IllegalArgumentException("Unknown schema id"), false);
+		DeserializationException cause = SerializationUtils.getExceptionFromHeader(record,
+				SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, null);
+		
+		assertThat(retryTiers.deadLetterUndecodable(record, cause)).isTrue();
+		
+		ProducerRecord<String, Object> deadLetter = sent(1).get(0);
+		assertThat(deadLetter.topic()).isEqualTo("order-events.dlt");
+		assertThat(deadLetter.key()).isEqualTo("order-1");
+		assertThat(deadLetter.value()).isEqualTo(data);
+		assertThat(header(deadLetter, "__TypeId__")).isEqualTo(PaymentConfirmedEvent.class.getName());
+		assertThat(header(deadLetter, EventRetryTiers.ORIGIN_HEADER)).isEqualTo("payment.charge-confirmed");
+		assertThat(deadLetter.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER)).isNull();
+		assertThat(meterRegistry.get("order.events.dead_lettered").tag("event_type", "undecodable").counter().count())
+				.isEqualTo(1);
+		
+		// read back from the DLT, still not readable: the replay stops there
+		ConsumerRecord<String, Object> stillUndecodable = received(deadLetter);
+		SerializationUtils.deserializationException(stillUndecodable.headers(), data,
+				new IllegalArgumentException("Unknown schema id"), false);
+		assertThatThrownBy(() -> retryTiers.replay(stillUndecodable)).isInstanceOf(DeserializationException.class);
+		verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+	}
+	
+	private static PaymentConfirmedEvent event(String orderId){
+		PaymentConfirmedEvent event = new PaymentConfirmedEvent();
+		event.setOrderId(orderId);
+		return event;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private List<ProducerRecord<String, Object>> sent(int count){
+		ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplate, times(count)).send(captor.capture());
+		return captor.getAllValues();
+	}
+	
+	private static ConsumerRecord<String, Object> received(ProducerRecord<String, Object> sent){
+		ConsumerRecord<String, Object> record = new ConsumerRecord<>(sent.topic(), 0, 0L, sent.key(), sent.value());
+		for (Header header: sent.headers()){
+			record.headers().add(header);
+		}
+		return record;
+	}
+	
+	private static String header(ProducerRecord<String, Object> record, String name){
+		return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,145 @@
+package com.beaconfire.ordermanagement.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author luluxue
+ * @date 2026-01-31
+ */
+/*
+* collects the numbers of one load run:
+* - createOrder latency, measured from the time the request was scheduled to be sent,
+*   so a stalled service also shows up as queueing delay (no coordinated omission)
+* - saga latency, from that same time until the order-delivered notification is seen
+* - throughput of accepted orders and of completed sagas
+* - per-topic lag of the OrderService consumer groups after the drain
+* */
+class LoadReport {
+	// the consumer groups of OrderService and the topics they read in the happy path
+	static final Map<String, List<String>> CONSUMER_GROUPS = Map.of(
+			"order-payment-status", List.of(SagaParticipants.PAYMENT_CONFIRMED),
+			"inventory-reserved-status", List.of(SagaParticipants.INVENTORY_RESERVED),
+			"shipment-status", List.of(SagaParticipants.SHIPMENT_SHIPPED, SagaParticipants.SHIPMENT_DELIVERED),
+			// app.kafka.consumer-mode=multiplexed
+			"order-events", List.of(SagaParticipants.PAYMENT_CONFIRMED, SagaParticipants.INVENTORY_RESERVED,
+					SagaParticipants.SHIPMENT_SHIPPED, SagaParticipants.SHIPMENT_DELIVERED));
+	
+	private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(10);
+	
+	private final Histogram requestLatency = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+	private final Histogram sagaLatency = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+	private final AtomicLong accepted = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final Map<String, Long> consumerLag = new TreeMap<>();
+	
+	private long firstIntendedNanos;
+	private long lastCompletedNanos;
+	
+	void start(long nanos){
+		this.firstIntendedNanos = nanos;
+	}
+	
+	void requestCompleted(long intendedStartNanos, boolean success){
+		requestLatency.recordValue(Math.min(System.nanoTime() - intendedStartNanos, MAX_LATENCY_NANOS));
+		(success ? accepted : failed).incrementAndGet();
+	}
+	
+	void sagaCompleted(long intendedStartNanos){
+		long now = System.nanoTime();
+		sagaLatency.recordValue(Math.min(now - intendedStartNanos, MAX_LATENCY_NANOS));
+		completed.incrementAndGet();
+		synchronized (this){
+			lastCompletedNanos = Math.max(lastCompletedNanos, now);
+		}
+	}
+	
+	long accepted(){
+		return accepted.get();
+	}
+	
+	long completed(){
+		return completed.get();
+	}
+	
+	/*
+	* committed offset vs. end offset for every partition the groups read,
+	* summed up per group and topic
+	* */
+	void collectConsumerLag(String bootstrapServers) throws Exception {
+		try (AdminClient admin = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers))){
+			for (Map.Entry<String, List<String>> group: CONSUMER_GROUPS.entrySet()){
+				Map<TopicPartition, OffsetAndMetadata> committed = admin
+						.listConsumerGroupOffsets(group.getKey())
+						.partitionsToOffsetAndMetadata().get(10, TimeUnit.SECONDS);
+				if (committed.isEmpty()){
+					// group not used in this consumer mode
+					continue;
+				}
+				
+				Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+				for (String topic: group.getValue()){
+					admin.describeTopics(List.of(topic)).allTopicNames().get(10, TimeUnit.SECONDS)
+							.get(topic).partitions()
+							.forEach(partition -> request.put(new TopicPartition(topic, partition.partition()), OffsetSpec.latest()));
+				}
+				Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends =
+						admin.listOffsets(request).all().get(10, TimeUnit.SECONDS);
+				
+				ends.forEach((partition, end) -> {
+					OffsetAndMetadata offset = committed.get(partition);
+					long lag = end.offset() - (offset == null ? 0 : offset.offset());
+					consumerLag.merge(group.getKey() + " / " + partition.topic(), lag, Long::sum);
+				});
+			}
+		}
+	}
+	
+	String render(double targetRate, int durationSeconds){
+		double sendSeconds = durationSeconds;
+		double sagaSeconds;
+		synchronized (this){
+			sagaSeconds = lastCompletedNanos == 0 ? 0 : (lastCompletedNanos - firstIntendedNanos) / 1e9;
+		}
+		
+		StringBuilder out = new StringBuilder();
+		out.append(String.format("target rate        : %.1f orders/s for %ds%n", targetRate, durationSeconds));
+		out.append(String.format("orders accepted    : %d (failed %d)%n", accepted.get(), failed.get()));
+		out.append(String.format("sagas completed    : %d%n", completed.get()));
+		out.append(String.format("accept throughput  : %.1f orders/s%n", accepted.get() / sendSeconds));
+		out.append(String.format("saga throughput    : %.1f orders/s%n", sagaSeconds == 0 ? 0 : completed.get() / sagaSeconds));
+		out.append(percentiles("createOrder latency", requestLatency));
+		out.append(percentiles("saga latency", sagaLatency));
+		out.append("consumer lag after drain:\n");
+		consumerLag.forEach((key, lag) -> out.append(String.format("  %-55s %d%n", key, lag)));
+		return out.toString();
+	}
+	
+	private static String percentiles(String name, Histogram histogram){
+		return String.format("%-19s: p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n", name,
+				histogram.getValueAtPercentile(50) / 1e6,
+				histogram.getValueAtPercentile(90) / 1e6,
+				histogram.getValueAtPercentile(99) / 1e6,
+				histogram.getValueAtPercentile(99.9) / 1e6,
+				histogram.getMaxValue() / 1e6);
+	}
+	
+	void write(Path file, String report) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, report);
+	}
+}
@@ -0,0 +1,204 @@
+package com.beaconfire.ordermanagement.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author luluxue
+ * @date 2026-01-31
+ */
+/*
+* end-to-end load run of the order saga on one box:
+* createOrder -> payment confirmed -> inventory reserved -> shipped -> delivered,
+* with embedded Kafka, an in-memory H2 database (PostgreSQL mode) and local HTTP stubs
+* for product, payment and shipment. the other services' Kafka side is SagaParticipants.
+*
+* only runs when asked for:
+*   mvn -B test -Pload -Dload.rate=200 -Dload.duration-seconds=60
+* the report is printed and written to target/load-report.txt
+* other settings can be passed the same way, e.g. -Dapp.kafka.consumer-mode=multiplexed
+* */
+@Slf4j
+@EnabledIfSystemProperty(named = "load.test", matches = "true")
+@EmbeddedKafka(partitions = 3, topics = {
+		SagaParticipants.CHARGE_REQUEST, SagaParticipants.INVENTORY_REDUCTION,
+		SagaParticipants.ORDER_CONFIRMED, SagaParticipants.ORDER_SHIPPED, SagaParticipants.ORDER_DELIVERED,
+		SagaParticipants.PAYMENT_CONFIRMED, SagaParticipants.INVENTORY_RESERVED,
+		SagaParticipants.SHIPMENT_SHIPPED, SagaParticipants.SHIPMENT_DELIVERED})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:load;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+		// the embedded broker only has the saga topics, the rest are created at startup
+		"app.kafka.topic-check.mode=create",
+		// the pinned openfeign release train predates Boot 3.5, the clients themselves work fine
+		"spring.cloud.compatibility-verifier.enabled=false",
+		"spring.autoconfigure.exclude="
+				+ "org.springframework.boot.autoconfigure.session.SessionAutoConfiguration,"
+				+ "org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,"
+				+ "org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration",
+		"logging.level.com.beaconfire.ordermanagement=WARN"
+})
+class SagaLoadTest {
+	private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+	private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+	private static final int BASKET_SIZE = Integer.getInteger("load.basket-size", 3);
+	private static final long DOWNSTREAM_LATENCY_MS = Long.getLong("load.downstream-latency-ms", 20);
+	private static final int DRAIN_TIMEOUT_SECONDS = Integer.getInteger("load.drain-timeout-seconds", 120);
+	
+	private static StubDownstreams downstreams;
+	
+	@LocalServerPort
+	private int port;
+	
+	@Value("${spring.embedded.kafka.brokers}")
+	private String bootstrapServers;
+	
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	
+	@DynamicPropertySource
+	static void downstreams(DynamicPropertyRegistry registry) throws Exception {
+		downstreams = new StubDownstreams(DOWNSTREAM_LATENCY_MS);
+		for (String client: List.of("product-service", "payment-service", "shipment-service")){
+			registry.add("spring.cloud.openfeign.client.config." + client + ".url", downstreams::baseUrl);
+		}
+	}
+	
+	@AfterAll
+	static void stopDownstreams(){
+		if (downstreams != null){
+			downstreams.close();
+		}
+	}
+	
+	@Test
+	void fullSagaUnderLoad() throws Exception {
+		LoadReport report = new LoadReport();
+		// order id -> intended send time, filled in when createOrder answers
+		Map<String, Long> startedOrders = new ConcurrentHashMap<>();
+		// deliveries can be seen before the HTTP response has been handled
+		Map<String, Long> earlyDeliveries = new ConcurrentHashMap<>();
+		
+		HttpClient http = HttpClient.newBuilder()
+				.executor(Executors.newFixedThreadPool(16))
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		
+		try (SagaParticipants participants = new SagaParticipants(bootstrapServers, orderId -> {
+			Long intendedStart = startedOrders.remove(orderId);
+			if (intendedStart != null){
+				report.sagaCompleted(intendedStart);
+			} else {
+				earlyDeliveries.put(orderId, System.nanoTime());
+			}
+		})){
+			// 1. open loop: requests go out on a fixed schedule, whether or not earlier ones have answered
+			long totalOrders = Math.round(RATE * DURATION_SECONDS);
+			long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / RATE);
+			long startNanos = System.nanoTime();
+			report.start(startNanos);
+			CountDownLatch responses = new CountDownLatch((int) totalOrders);
+			
+			for (long i = 0; i < totalOrders; i++){
+				long intendedStart = startNanos + i * intervalNanos;
+				scheduler.schedule(() -> placeOrder(http, intendedStart, report, startedOrders, earlyDeliveries, responses),
+						intendedStart - System.nanoTime(), TimeUnit.NANOSECONDS);
+			}
+			
+			// 2. wait for the answers, then for the sagas to drain
+			responses.await(DURATION_SECONDS + DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+			while (report.completed() < report.accepted() && System.nanoTime() < drainDeadline){
+				Thread.sleep(200);
+			}
+		} finally {
+			scheduler.shutdownNow();
+		}
+		
+		// 3. report
+		report.collectConsumerLag(bootstrapServers);
+		String rendered = report.render(RATE, DURATION_SECONDS);
+		log.warn("Saga load report\n{}", rendered);
+		report.write(Path.of("target", "load-report.txt"), rendered);
+		
+		assertThat(report.accepted()).isPositive();
+		assertThat(report.completed()).isEqualTo(report.accepted());
+	}
+	
+	private void placeOrder(HttpClient http, long intendedStart, LoadReport report,
+	                        Map<String, Long> startedOrders, Map<String, Long> earlyDeliveries,
+	                        CountDownLatch responses){
+		String idempotencyKey = UUID.randomUUID().toString();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/orders"))
+				.header("Content-Type", "application/json")
+				.header("Idempotency-Key", idempotencyKey)
+				.header("X-Payment-Token", "tok-" + idempotencyKey)
+				.timeout(Duration.ofSeconds(30))
+				.POST(HttpRequest.BodyPublishers.ofString(orderBody(idempotencyKey)))
+				.build();
+		
+		http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, ex) -> {
+			try {
+				boolean created = ex == null && response.statusCode() == 201;
+				report.requestCompleted(intendedStart, created);
+				if (!created){
+					log.warn("createOrder failed: {}", ex != null ? ex.getMessage() : response.statusCode() + " " + response.body());
+					return;
+				}
+				
+				String orderId = objectMapper.readTree(response.body()).get("orderId").asText();
+				startedOrders.put(orderId, intendedStart);
+				if (earlyDeliveries.remove(orderId) != null && startedOrders.remove(orderId) != null){
+					report.sagaCompleted(intendedStart);
+				}
+			} catch (Exception parseEx) {
+				log.warn("Unreadable createOrder response: {}", parseEx.getMessage());
+			} finally {
+				responses.countDown();
+			}
+		});
+	}
+	
+	// the key and token are validated on the body before the controller copies the headers in
+	private String orderBody(String idempotencyKey){
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<Map<String, Object>> items = new ArrayList<>();
+		for (int i = 0; i < BASKET_SIZE; i++){
+			items.add(Map.of("productId", "P-" + random.nextInt(1000), "quantity", 1 + random.nextInt(3)));
+		}
+		try {
+			return objectMapper.writeValueAsString(Map.of(
+					"userId", "load-user-" + random.nextInt(10_000),
+					"shippingAddressId", 1L,
+					"paymentMethod", "CARD",
+					"items", items,
+					"idempotencyKey", idempotencyKey,
+					"paymentMethodToken", "tok-" + idempotencyKey));
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.beaconfire.ordermanagement.load;
+
+import com.beaconfire.ordermanagement.dto.InventoryReservedEvent;
+import com.beaconfire.ordermanagement.dto.OrderDeliveredEvent;
+import com.beaconfire.ordermanagement.dto.OrderShippedEvent;
+import com.beaconfire.ordermanagement.dto.PaymentConfirmedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @author luluxue
+ * @date 2026-01-31
+ */
+/*
+* plays payment-service, product-service (inventory) and shipment-service on Kafka,
+* so every order runs the full saga through OrderEventHandler:
+*   payment.order-request-charge    -> payment.charge-confirmed
+*   inventory.order-placed          -> inventory.reserved-confirmation
+*   notification.order-confirmed    -> shipment.started
+*   notification.order-shipped      -> shipment.delivered
+*   notification.order-delivered    -> saga done, reported to onDelivered
+* the inventory event is published twice per order (at placement and after payment);
+* the first reservation may be skipped as out of order, the second one confirms the order.
+* */
+@Slf4j
+class SagaParticipants implements AutoCloseable {
+	static final String CHARGE_REQUEST = "payment.order-request-charge";
+	static final String INVENTORY_REDUCTION = "inventory.order-placed";
+	static final String ORDER_CONFIRMED = "notification.order-confirmed";
+	static final String ORDER_SHIPPED = "notification.order-shipped";
+	static final String ORDER_DELIVERED = "notification.order-delivered";
+	
+	static final String PAYMENT_CONFIRMED = "payment.charge-confirmed";
+	static final String INVENTORY_RESERVED = "inventory.reserved-confirmation";
+	static final String SHIPMENT_SHIPPED = "shipment.started";
+	static final String SHIPMENT_DELIVERED = "shipment.delivered";
+	
+	private final KafkaConsumer<String, String> consumer;
+	private final KafkaProducer<String, Object> producer;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Consumer<String> onDelivered;
+	private final Thread pollThread;
+	private volatile boolean running = true;
+	
+	SagaParticipants(String bootstrapServers, Consumer<String> onDelivered){
+		this.onDelivered = onDelivered;
+		this.consumer = new KafkaConsumer<>(Map.of(
+				ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+				ConsumerConfig.GROUP_ID_CONFIG, "load-harness",
+				ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+				ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1000),
+				new StringDeserializer(), new StringDeserializer());
+		// same serializer and type headers as the real services' events
+		this.producer = new KafkaProducer<>(Map.of(
+				ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+				ProducerConfig.LINGER_MS_CONFIG, 5),
+				new StringSerializer(), new JsonSerializer<>(Jackson2ObjectMapperBuilder.json().build()));
+		
+		consumer.subscribe(List.of(CHARGE_REQUEST, INVENTORY_REDUCTION, ORDER_CONFIRMED, ORDER_SHIPPED, ORDER_DELIVERED));
+		this.pollThread = new Thread(this::pollLoop, "load-saga-participants");
+		this.pollThread.start();
+	}
+	
+	private void pollLoop(){
+		try {
+			while (running){
+				for (ConsumerRecord<String, String> record: consumer.poll(Duration.ofMillis(100))){
+					try {
+						react(record.topic(), objectMapper.readTree(record.value()).get("orderId").asText());
+					} catch (Exception ex) {
+						log.warn("Could not handle {} record: {}", record.topic(), ex.getMessage());
+					}
+				}
+			}
+		} finally {
+			consumer.close();
+		}
+	}
+	
+	private void react(String topic, String orderId){
+		LocalDateTime now = LocalDateTime.now();
+		switch (topic) {
+			case CHARGE_REQUEST -> send(PAYMENT_CONFIRMED, orderId,
+					new PaymentConfirmedEvent(orderId, "txn-" + orderId, BigDecimal.ZERO, now));
+			case INVENTORY_REDUCTION -> send(INVENTORY_RESERVED, orderId, new InventoryReservedEvent(orderId));
+			case ORDER_CONFIRMED -> send(SHIPMENT_SHIPPED, orderId,
+					new OrderShippedEvent(orderId, "TRK-" + orderId, "LOCAL", now, now.plusDays(2).toLocalDate().toString()));
+			case ORDER_SHIPPED -> send(SHIPMENT_DELIVERED, orderId, new OrderDeliveredEvent(orderId, now, "Load Test"));
+			case ORDER_DELIVERED -> onDelivered.accept(orderId);
+			default -> { }
+		}
+	}
+	
+	private void send(String topic, String orderId, Object event){
+		producer.send(new ProducerRecord<>(topic, orderId, event));
+	}
+	
+	@Override
+	public void close() throws InterruptedException {
+		running = false;
+		pollThread.join();
+		producer.close();
+	}
+}
@@ -0,0 +1,133 @@
+package com.beaconfire.ordermanagement.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executors;
+
+/**
+ * @author luluxue
+ * @date 2026-01-31
+ */
+/*
+* in-process stand-ins for product-service, payment-service and shipment-service,
+* served by the JDK HTTP server on one local port, with a fixed added latency per call
+* every product exists and is in stock, payments succeed, shipments are in transit
+* */
+class StubDownstreams implements AutoCloseable {
+	private final HttpServer server;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final long latencyMs;
+	
+	StubDownstreams(long latencyMs) throws IOException {
+		this.latencyMs = latencyMs;
+		// the default accept backlog drops connections when the open-loop driver bursts
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		
+		server.createContext("/api/v1/products", this::products);
+		server.createContext("/apiv1/payments", exchange -> respond(exchange, Map.of(
+				"paymentTransactionId", "txn-" + lastSegment(exchange),
+				"status", "SUCCESS")));
+		server.createContext("/api/v1/shipment/order", exchange -> respond(exchange, Map.of(
+				"trackingNumber", "TRK-" + lastSegment(exchange),
+				"carrier", "LOCAL",
+				"status", "IN_TRANSIT")));
+		server.start();
+	}
+	
+	String baseUrl(){
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+	
+	private void products(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		
+		// POST /api/v1/products/availability/bulk
+		if (path.endsWith("/availability/bulk")){
+			JsonNode items = objectMapper.readTree(exchange.getRequestBody());
+			List<Map<String, Object>> availability = new ArrayList<>();
+			for (JsonNode item: items){
+				availability.add(Map.of(
+						"productId", item.get("productId").asText(),
+						"requestedQuantity", item.get("quantity").asInt(),
+						"available", true));
+			}
+			respond(exchange, availability);
+			return;
+		}
+		
+		// GET /api/v1/products/bulk?ids=a,b&ids=c
+		if (path.endsWith("/bulk")){
+			List<Map<String, Object>> products = new ArrayList<>();
+			for (String id: queryValues(exchange, "ids")){
+				products.add(product(id));
+			}
+			respond(exchange, products);
+			return;
+		}
+		
+		// GET /api/v1/products/{id}
+		respond(exchange, product(lastSegment(exchange)));
+	}
+	
+	private Map<String, Object> product(String productId){
+		return Map.of(
+				"productId", productId,
+				"productName", "Product " + productId,
+				"unitPrice", BigDecimal.valueOf(1999, 2));
+	}
+	
+	private void respond(HttpExchange exchange, Object body) throws IOException {
+		if (latencyMs > 0){
+			try {
+				Thread.sleep(latencyMs);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		byte[] json = objectMapper.writeValueAsBytes(body);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, json.length);
+		try (OutputStream out = exchange.getResponseBody()){
+			out.write(json);
+		}
+	}
+	
+	private static String lastSegment(HttpExchange exchange){
+		String path = exchange.getRequestURI().getPath().replace("}", "");
+		return path.substring(path.lastIndexOf('/') + 1);
+	}
+	
+	private static List<String> queryValues(HttpExchange exchange, String name){
+		String query = exchange.getRequestURI().getRawQuery();
+		List<String> values = new ArrayList<>();
+		if (query == null){
+			return values;
+		}
+		for (String pair: query.split("&")){
+			String[] keyValue = pair.split("=", 2);
+			if (keyValue.length == 2 && keyValue[0].equals(name)){
+				for (String value: URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8).split(",")){
+					values.add(value);
+				}
+			}
+		}
+		return values;
+	}
+	
+	@Override
+	public void close(){
+		server.stop(0);
+	}
+}
@@ -0,0 +1,90 @@
+package com.beaconfire.ordermanagement.repository;
+
+import com.beaconfire.ordermanagement.entity.Order;
+import com.beaconfire.ordermanagement.entity.OrderItem;
+import com.beaconfire.ordermanagement.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author luluxue
+ * @date 2026-01-28
+ */
+/*
+* statements per order for large baskets
+* with IDENTITY ids every item was its own INSERT: 1 + basketSize statements.
+* with pooled sequence ids the items are sent in JDBC batches of hibernate.jdbc.batch_size (50),
+* plus one sequence call per 50 ids.
+* */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:batch-insert;MODE=PostgreSQL",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderItemBatchInsertTest {
+	private static final int BATCH_SIZE = 50;
+	
+	@Autowired
+	private EntityManager entityManager;
+	
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	
+	@ParameterizedTest
+	@ValueSource(ints = {10, 100, 500})
+	void itemsOfLargeBasketAreInsertedInBatches(int basketSize){
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		
+		entityManager.persist(newOrder(basketSize));
+		entityManager.flush();
+		
+		long statements = statistics.getPrepareStatementCount();
+		long batches = (basketSize + BATCH_SIZE - 1) / BATCH_SIZE;
+		
+		// order insert + item batches + sequence calls (one spare for the initial pool)
+		assertThat(statements)
+				.as("statements for a basket of %d items (%d with IDENTITY ids)", basketSize, 1 + basketSize)
+				.isLessThanOrEqualTo(1 + batches + (batches + 1));
+	}
+	
+	private Order newOrder(int basketSize){
+		Order order = Order.builder()
+				.id(UUID.randomUUID().toString())
+				.userId("user-1")
+				.items(new ArrayList<>())
+				.status(OrderStatus.PENDING)
+				.totalAmount(BigDecimal.valueOf(basketSize))
+				.createdAt(LocalDateTime.now())
+				.idempotencyKey(UUID.randomUUID().toString())
+				.build();
+		
+		for (int i = 0; i < basketSize; i++){
+			order.getItems().add(OrderItem.builder()
+					.order(order)
+					.productId("product-" + i)
+					.productName("Product " + i)
+					.unitPrice(BigDecimal.ONE)
+					.quantity(1)
+					.subtotal(BigDecimal.ONE)
+					.returnedQuantity(0)
+					.returnedItems(new ArrayList<>())
+					.build());
+		}
+		return order;
+	}
+}
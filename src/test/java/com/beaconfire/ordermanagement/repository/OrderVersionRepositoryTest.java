@@ -0,0 +1,59 @@
+package com.beaconfire.ordermanagement.repository;
+
+import com.beaconfire.ordermanagement.entity.Order;
+import com.beaconfire.ordermanagement.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+/*
+* the version moves on commit, so every step runs in its own transaction
+* */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:order-version;MODE=PostgreSQL")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderVersionRepositoryTest {
+	@Autowired
+	private OrderRepository orderRepo;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Test
+	void versionOfALoadedUnchangedOrderIsIncremented(){
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		String orderId = tx.execute(status -> orderRepo.save(newOrder()).getId());
+		Integer version = orderRepo.findVersionById(orderId).orElseThrow();
+		
+		tx.executeWithoutResult(status -> orderRepo.incrementVersion(orderRepo.findById(orderId).orElseThrow()));
+		
+		assertThat(orderRepo.findVersionById(orderId)).contains(version + 1);
+	}
+	
+	private Order newOrder(){
+		return Order.builder()
+				.userId("user-1")
+				.items(new ArrayList<>())
+				.status(OrderStatus.PARTIALLY_RETURNED)
+				.totalAmount(BigDecimal.TEN)
+				.createdAt(LocalDateTime.now())
+				.idempotencyKey(UUID.randomUUID().toString())
+				.build();
+	}
+}
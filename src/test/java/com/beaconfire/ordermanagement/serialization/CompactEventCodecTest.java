@@ -0,0 +1,185 @@
+package com.beaconfire.ordermanagement.serialization;
+
+import com.beaconfire.ordermanagement.dto.InventoryReductionEvent;
+import com.beaconfire.ordermanagement.dto.ItemToReduce;
+import com.beaconfire.ordermanagement.dto.OrderRefundRequestedEvent;
+import com.beaconfire.ordermanagement.entity.RefundType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author luluxue
+ * @date 2026-02-02
+ */
+class CompactEventCodecTest {
+	private static final String TOPIC = "inventory.order-placed";
+	
+	private final EventSchemaRegistry registry = new EventSchemaRegistry(
+			List.of(InventoryReductionEvent.class, OrderRefundRequestedEvent.class));
+	private final CompactEventSerializer serializer = new CompactEventSerializer(registry);
+	private final CompactEventDeserializer deserializer = new CompactEventDeserializer(registry, jsonDeserializer());
+	
+	@Test
+	void roundTripsNestedListsAndDates(){
+		InventoryReductionEvent event = new InventoryReductionEvent("order-1",
+				List.of(new ItemToReduce("product-1", 2), new ItemToReduce("product-2", 1)),
+				LocalDateTime.of(2026, 2, 2, 10, 15, 30, 123_000_000));
+		
+		assertThat(deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event))).isEqualTo(event);
+	}
+	
+	@Test
+	void roundTripsEnumsDecimalsAndNulls(){
+		OrderRefundRequestedEvent event = OrderRefundRequestedEvent.builder()
+				.orderId("order-1")
+				.refundAmount(new BigDecimal("1234.56"))
+				.refundType(RefundType.CANCELLATION)
+				.isFullRefund(true)
+				.returnedItemIds(List.of("item-1"))
+				.build();
+		
+		assertThat(deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event))).isEqualTo(event);
+	}
+	
+	@Test
+	void isSmallerThanJson(){
+		InventoryReductionEvent event = new InventoryReductionEvent("0190a6e2-7c1b-7f3a-9c3e-5b1d2f3a4b5c",
+				List.of(new ItemToReduce("product-1", 2)), LocalDateTime.now());
+		
+		try (JsonSerializer<Object> json = new JsonSerializer<>()){
+			assertThat(serializer.serialize(TOPIC, event).length).isLessThan(json.serialize(TOPIC, event).length / 2);
+		}
+	}
+	
+	@Test
+	void readsJsonRecordsLeftOnTheTopic(){
+		InventoryReductionEvent event = new InventoryReductionEvent("order-1", List.of(), null);
+		try (JsonSerializer<Object> json = new JsonSerializer<>()){
+			json.setAddTypeInfo(false);
+			
+			assertThat(deserializer.deserialize(TOPIC, json.serialize(TOPIC, event))).isEqualTo(event);
+		}
+	}
+	
+	@Test
+	void rejectsUnknownSchemaIds(){
+		byte[] record = serializer.serialize(TOPIC, new InventoryReductionEvent("order-1", List.of(), null));
+		CompactEventDeserializer otherService = new CompactEventDeserializer(new EventSchemaRegistry(), null);
+		
+		assertThatThrownBy(() -> otherService.deserialize(TOPIC, record))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("Unknown event schema id");
+	}
+	
+	@Test
+	void olderReaderSkipsFieldsAppendedByANewerWriter(){
+		EventSchemaRegistry older = new EventSchemaRegistry(List.of(ShipmentV1.class));
+		byte[] record = asWrittenFor(ShipmentV1.class, serializer.serialize(TOPIC,
+				new ShipmentV2("order-1", List.of(new ParcelV2("parcel-1", 2, "fragile")), "DHL")));
+		
+		assertThat(new CompactEventDeserializer(older, null).deserialize(TOPIC, record))
+				.isEqualTo(new ShipmentV1("order-1", List.of(new ParcelV1("parcel-1", 2))));
+	}
+	
+	@Test
+	void newerReaderLeavesFieldsAnOlderWriterDidNotHaveAtTheirDefault(){
+		EventSchemaRegistry newer = new EventSchemaRegistry(List.of(ShipmentV2.class));
+		byte[] record = asWrittenFor(ShipmentV2.class, serializer.serialize(TOPIC,
+				new ShipmentV1("order-1", List.of(new ParcelV1("parcel-1", 2)))));
+		
+		assertThat(new CompactEventDeserializer(newer, null).deserialize(TOPIC, record))
+				.isEqualTo(new ShipmentV2("order-1", List.of(new ParcelV2("parcel-1", 2, null)), null));
+	}
+	
+	@Test
+	void fieldWhoseTypeChangedIsRejected(){
+		EventSchemaRegistry changed = new EventSchemaRegistry(List.of(ParcelWithTextQuantity.class));
+		byte[] record = asWrittenFor(ParcelWithTextQuantity.class, serializer.serialize(TOPIC, new ParcelV1("parcel-1", 2)));
+		
+		assertThatThrownBy(() -> new CompactEventDeserializer(changed, null).deserialize(TOPIC, record))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("Field quantity");
+	}
+	
+	@Test
+	void objectsLongerThanOneLengthByteRoundTrip(){
+		InventoryReductionEvent event = new InventoryReductionEvent("order-1",
+				IntStream.range(0, 50).mapToObj(i -> new ItemToReduce("product-" + i, i)).toList(),
+				LocalDateTime.of(2026, 2, 2, 10, 15));
+		
+		assertThat(deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event))).isEqualTo(event);
+	}
+	
+	// the same class in another service version: same name, so same schema id on the wire
+	private byte[] asWrittenFor(Class<?> readerType, byte[] record){
+		int id = EventSchema.of(readerType).id();
+		record[1] = (byte) (id >>> 24);
+		record[2] = (byte) (id >>> 16);
+		record[3] = (byte) (id >>> 8);
+		record[4] = (byte) id;
+		return record;
+	}
+	
+	private static JsonDeserializer<Object> jsonDeserializer(){
+		JsonDeserializer<Object> json = new JsonDeserializer<>();
+		json.configure(Map.of(
+				JsonDeserializer.TRUSTED_PACKAGES, "com.beaconfire.ordermanagement.dto",
+				JsonDeserializer.VALUE_DEFAULT_TYPE, InventoryReductionEvent.class.getName()), false);
+		return json;
+	}
+	
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class ShipmentV1 {
+		private String orderId;
+		private List<ParcelV1> parcels;
+	}
+	
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class ParcelV1 {
+		private String parcelId;
+		private int quantity;
+	}
+	
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class ShipmentV2 {
+		private String orderId;
+		private List<ParcelV2> parcels;
+		private String carrier;
+	}
+	
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class ParcelV2 {
+		private String parcelId;
+		private int quantity;
+		private String note;
+	}
+	
+	@Data
+	@NoArgsConstructor
+	static class ParcelWithTextQuantity {
+		private String parcelId;
+		private String quantity;
+	}
+}
@@ -0,0 +1,115 @@
+package com.beaconfire.ordermanagement.service.outbox;
+
+import com.beaconfire.ordermanagement.configuration.KafkaTopicInitializer;
+import com.beaconfire.ordermanagement.dto.PaymentConfirmedEvent;
+import com.beaconfire.ordermanagement.entity.OutboxEvent;
+import com.beaconfire.ordermanagement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+class OutboxRelayTest {
+	private static final String TOPIC = "payment-confirmed";
+	
+	private final OutboxEventRepository outboxRepo = mock(OutboxEventRepository.class);
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+	private final ProducerSendTracker sendTracker = mock(ProducerSendTracker.class);
+	private final KafkaTopicInitializer topicInitializer = mock(KafkaTopicInitializer.class);
+	private final OutboxRelay relay = new OutboxRelay(outboxRepo, kafkaTemplate, sendTracker, topicInitializer,
+			new ObjectMapper(), mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+			500, 1_000, 10, 60_000, 7);
+	
+	@BeforeEach
+	void setUp(){
+		when(topicInitializer.isRunning()).thenReturn(true);
+		when(sendTracker.track(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+		when(outboxRepo.findLeasedAggregateIds(any(), any())).thenReturn(Set.of());
+		when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+	}
+	
+	@Test
+	void nextEventOfAnOrderIsSentOnceThePreviousOneIsAcked(){
+		OutboxEvent first = event(1L, "order-1");
+		OutboxEvent other = event(2L, "order-2");
+		OutboxEvent second = event(3L, "order-1");
+		claimable(first, other, second);
+		
+		relay.relay();
+		
+		InOrder inOrder = inOrder(kafkaTemplate);
+		inOrder.verify(kafkaTemplate, times(2)).send(eq(TOPIC), anyString(), any());
+		inOrder.verify(kafkaTemplate).flush();
+		inOrder.verify(kafkaTemplate).send(eq(TOPIC), eq("order-1"), any());
+		inOrder.verify(kafkaTemplate).flush();
+		verify(outboxRepo).markPublished(eq(List.of(1L, 2L, 3L)), any());
+	}
+	
+	@Test
+	void laterEventsOfAFailedOrderAreNotSent(){
+		OutboxEvent first = event(1L, "order-1");
+		OutboxEvent other = event(2L, "order-2");
+		OutboxEvent second = event(3L, "order-1");
+		claimable(first, other, second);
+		when(kafkaTemplate.send(TOPIC, "order-1", payload("order-1")))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("not acknowledged")));
+		
+		relay.relay();
+		
+		// the failed event is sent once, the one behind it waits for the next run
+		verify(kafkaTemplate, times(1)).send(eq(TOPIC), eq("order-1"), any());
+		verify(outboxRepo).markPublished(eq(List.of(2L)), any());
+		verify(outboxRepo).release(List.of(3L));
+		verify(outboxRepo).save(first);
+		assertThat(first.getAttempts()).isEqualTo(1);
+		assertThat(second.getAttempts()).isZero();
+	}
+	
+	@Test
+	void nothingIsRelayedBeforeTheTopicsAreChecked(){
+		when(topicInitializer.isRunning()).thenReturn(false);
+		claimable(event(1L, "order-1"));
+		
+		relay.relay();
+		
+		verifyNoInteractions(outboxRepo, kafkaTemplate);
+	}
+	
+	private void claimable(OutboxEvent... events){
+		when(outboxRepo.findClaimable(any(), any())).thenReturn(List.of(events)).thenReturn(List.of());
+	}
+	
+	private static OutboxEvent event(Long id, String orderId){
+		return OutboxEvent.builder()
+				.id(id)
+				.aggregateId(orderId)
+				.topic(TOPIC)
+				.payloadType(PaymentConfirmedEvent.class.getName())
+				.payload("{\"orderId\":\"" + orderId + "\"}")
+				.createdAt(LocalDateTime.now())
+				.build();
+	}
+	
+	private static PaymentConfirmedEvent payload(String orderId){
+		PaymentConfirmedEvent event = new PaymentConfirmedEvent();
+		event.setOrderId(orderId);
+		return event;
+	}
+}
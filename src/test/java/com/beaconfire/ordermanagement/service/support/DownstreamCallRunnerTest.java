@@ -0,0 +1,62 @@
+package com.beaconfire.ordermanagement.service.support;
+
+import com.beaconfire.ordermanagement.configuration.InstrumentedExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author luluxue
+ * @date 2026-02-07
+ */
+class DownstreamCallRunnerTest {
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	// one worker, one queue slot
+	private final InstrumentedExecutor executor = new InstrumentedExecutor("orderDetailsExecutor",
+			new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+					new ThreadPoolExecutor.AbortPolicy()), meterRegistry);
+	private final DownstreamCallRunner callRunner =
+			new DownstreamCallRunner(executor, meterRegistry, false, Duration.ofMillis(300));
+	private final CountDownLatch release = new CountDownLatch(1);
+	
+	@AfterEach
+	void tearDown(){
+		release.countDown();
+		executor.shutdown();
+	}
+	
+	@Test
+	void callRejectedByAFullExecutorFailsInsteadOfRunningOnTheCaller(){
+		List<CompletableFuture<?>> inFlight = new ArrayList<>();
+		CompletableFuture<String> running = callRunner.call(this::blocked, inFlight);
+		CompletableFuture<String> queued = callRunner.call(this::blocked, inFlight);
+		CompletableFuture<String> rejected = callRunner.call(() -> "ran", inFlight);
+		
+		assertThat(rejected).isCompletedExceptionally();
+		assertThat(rejected.handle((value, ex) -> ex).join()).isInstanceOf(RejectedExecutionException.class);
+		assertThat(inFlight).hasSize(3);
+		assertThat(meterRegistry.get("executor.tasks.rejected").counter().count()).isEqualTo(1);
+		
+		release.countDown();
+		assertThat(running.join()).isEqualTo("done");
+		assertThat(queued.join()).isEqualTo("done");
+		// the rejected task is not left in the queued gauge
+		assertThat(meterRegistry.get("executor.tasks.queued").gauge().value()).isZero();
+	}
+	
+	private String blocked(){
+		try {
+			release.await();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		return "done";
+	}
+}